@@ -4,9 +4,13 @@ import java.util.Arrays;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.context.ApplicationContext;
 
-@SpringBootApplication
+// R2DBC is only used by the reactive-search profile, which configures it itself; the auto-configured
+// transaction manager would otherwise compete with the JPA one for @Transactional
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class Application {
 
 	public static void main(String[] args) {
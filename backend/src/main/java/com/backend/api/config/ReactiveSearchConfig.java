@@ -0,0 +1,44 @@
+package com.backend.api.config;
+
+import io.r2dbc.pool.PoolingConnectionFactoryProvider;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Pooled R2DBC connections for the non-blocking search path. Connects to the same database as
+ * spring.datasource unless search.reactive.url is set.
+ */
+@Configuration
+@Profile("reactive-search")
+public class ReactiveSearchConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionFactory searchConnectionFactory(
+            @Value("${search.reactive.url:}") String url,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            @Value("${search.reactive.pool-size:20}") int poolSize) {
+        // jdbc:mysql://host:3306/db?params -> r2dbc:pool:mysql://host:3306/db; JDBC-only parameters are dropped
+        String r2dbcUrl = url.isBlank()
+                ? jdbcUrl.replaceFirst("\\?.*$", "").replaceFirst("^jdbc:mysql:", "r2dbc:pool:mysql:")
+                : url;
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .option(PoolingConnectionFactoryProvider.MAX_SIZE, poolSize)
+                .build();
+        return ConnectionFactories.get(options);
+    }
+
+    @Bean
+    public DatabaseClient searchDatabaseClient(ConnectionFactory searchConnectionFactory) {
+        return DatabaseClient.create(searchConnectionFactory);
+    }
+}
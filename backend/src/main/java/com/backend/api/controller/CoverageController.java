@@ -1,14 +1,31 @@
 package com.backend.api.controller;
 
+import com.backend.api.entity.User;
+import com.backend.api.entity.UserRole;
+import com.backend.api.premium.PaymentMode;
+import com.backend.api.premium.PremiumApplication;
+import com.backend.api.premium.PremiumBatchResult;
+import com.backend.api.premium.PremiumIllustration;
+import com.backend.api.premium.PremiumIllustrator;
+import com.backend.api.premium.PremiumQuote;
+import com.backend.api.premium.PremiumQuoteCache;
+import com.backend.api.premium.PremiumSweep;
+import com.backend.api.repository.UserRepository;
+import com.backend.api.security.SecurityUtils;
 import com.backend.api.service.CoverageService;
 import com.backend.api.service.PremiumCalculationService;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -24,6 +41,15 @@ public class CoverageController {
     
     @Autowired
     private PremiumCalculationService premiumCalculationService;
+
+    @Autowired
+    private PremiumQuoteCache premiumQuoteCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     
     @PostMapping("/base/{applicationNumber}")
     public ResponseEntity<Map<String, Object>> saveBaseCoverage(
@@ -34,12 +60,18 @@ public class CoverageController {
         return ResponseEntity.ok(savedData);
     }
     
-    @PostMapping("/premium/calculate")
-    public ResponseEntity<JsonNode> calculatePremium(@RequestBody JsonNode requestData) {
-        log.info("Received request to calculate premium: {}", requestData);
+    /**
+     * The body is streamed into a PremiumApplication and the quote streamed back out through the
+     * shared ObjectMapper; no JsonNode tree is built on either side
+     */
+    @PostMapping(value = "/premium/calculate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> calculatePremium(InputStream requestBody) {
         try {
-            JsonNode calculationResult = premiumCalculationService.calculatePremium(requestData);
-            log.info("calculationResult: {}", calculationResult);
+            PremiumApplication application = objectMapper.readValue(requestBody, PremiumApplication.class);
+            log.info("Received request to calculate premium for application: {} ({} coverages)",
+                    application.applicationFormGUID(), application.coverages().size());
+            PremiumQuote calculationResult = premiumCalculationService.calculatePremium(application);
+            log.debug("calculationResult: {}", calculationResult);
             return ResponseEntity.ok(calculationResult);
         } catch (Exception e) {
             log.error("Error calculating premium: {}", e.getMessage(), e);
@@ -48,6 +80,111 @@ public class CoverageController {
         }
     }
 
+    /**
+     * Price a JSON array of requests in the shape of /premium/calculate in parallel. Returns one
+     * {index, quote} or {index, error} per request, in input order; only a malformed batch fails as a whole.
+     */
+    @PostMapping(value = "/premium/calculate/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> calculatePremiums(InputStream requestBody) {
+        try (JsonParser parser = objectMapper.createParser(requestBody)) {
+            List<PremiumBatchResult> results = premiumCalculationService.calculatePremiums(parser);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            log.error("Error calculating premium batch: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(JsonNodeFactory.instance.objectNode()
+                .put("error", "Failed to calculate premiums: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Premiums per policy year for the request of /premium/calculate, up to 100 years
+     */
+    @PostMapping(value = "/premium/illustrate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> illustratePremium(
+            InputStream requestBody,
+            @RequestParam(defaultValue = "" + PremiumIllustrator.MAX_DURATIONS) int durations) {
+        try {
+            PremiumApplication application = objectMapper.readValue(requestBody, PremiumApplication.class);
+            log.info("Received request to illustrate premium for application: {} ({} coverages, {} years)",
+                    application.applicationFormGUID(), application.coverages().size(), durations);
+            PremiumIllustration illustration = premiumCalculationService.illustratePremium(application, durations);
+            return ResponseEntity.ok(illustration);
+        } catch (Exception e) {
+            log.error("Error illustrating premium: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(JsonNodeFactory.instance.objectNode()
+                .put("error", "Failed to illustrate premium: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Premiums of the request of /premium/calculate for every face amount from faceFrom to faceTo by faceStep
+     * and UW class of one coverage (its own class when none are given). Table ratings do not change the
+     * premium, so tableRatings is rejected rather than returning identical series.
+     */
+    @PostMapping(value = "/premium/sweep", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> sweepPremium(
+            InputStream requestBody,
+            @RequestParam(required = false) String coverageGUID,
+            @RequestParam BigDecimal faceFrom,
+            @RequestParam BigDecimal faceTo,
+            @RequestParam BigDecimal faceStep,
+            @RequestParam(required = false) List<String> uwClasses,
+            @RequestParam(required = false) List<String> tableRatings,
+            @RequestParam(defaultValue = "ANNUAL") PaymentMode mode) {
+        if (tableRatings != null) {
+            return ResponseEntity.badRequest().body(JsonNodeFactory.instance.objectNode()
+                .put("error", "Table ratings do not affect the premium and cannot be swept"));
+        }
+        try {
+            PremiumApplication application = objectMapper.readValue(requestBody, PremiumApplication.class);
+            PremiumSweep sweep = premiumCalculationService.sweepPremium(application, coverageGUID, faceFrom, faceTo,
+                    faceStep, uwClasses, mode);
+            return ResponseEntity.ok(sweep);
+        } catch (Exception e) {
+            log.error("Error sweeping premium: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(JsonNodeFactory.instance.objectNode()
+                .put("error", "Failed to sweep premium: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * The largest multiple of faceStep for one coverage that keeps the total premium of the request within targetPremium
+     */
+    @PostMapping(value = "/premium/solve", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> solveFaceAmount(
+            InputStream requestBody,
+            @RequestParam(required = false) String coverageGUID,
+            @RequestParam BigDecimal targetPremium,
+            @RequestParam(defaultValue = "ANNUAL") PaymentMode mode,
+            @RequestParam(defaultValue = "1000") BigDecimal faceStep,
+            @RequestParam(required = false) String uwClass,
+            @RequestParam(required = false) String tableRating) {
+        if (tableRating != null) {
+            return ResponseEntity.badRequest().body(JsonNodeFactory.instance.objectNode()
+                .put("error", "Table ratings do not affect the premium and cannot be solved for"));
+        }
+        try {
+            PremiumApplication application = objectMapper.readValue(requestBody, PremiumApplication.class);
+            PremiumSweep.Solution solution = premiumCalculationService.solveFaceAmount(application, coverageGUID,
+                    targetPremium, mode, faceStep, uwClass);
+            return ResponseEntity.ok(solution);
+        } catch (Exception e) {
+            log.error("Error solving face amount: {}", e.getMessage(), e);
+            return ResponseEntity.badRequest().body(JsonNodeFactory.instance.objectNode()
+                .put("error", "Failed to solve face amount: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/premium/cache/stats")
+    public ResponseEntity<Map<String, Object>> getPremiumCacheStats() {
+        User currentUser = userRepository.findByEmail(SecurityUtils.getCurrentUsername())
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(premiumQuoteCache.stats());
+    }
+
     @GetMapping("/additional-definitions/{planGUID}")
     public ResponseEntity<List<Map<String, String>>> getAdditionalCoverageDefinitions(
             @PathVariable String planGUID) {
@@ -0,0 +1,75 @@
+package com.backend.api.controller;
+
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.dto.SearchCriteria;
+import com.backend.api.entity.User;
+import com.backend.api.entity.UserRole;
+import com.backend.api.repository.UserRepository;
+import com.backend.api.security.SecurityUtils;
+import com.backend.api.service.ReactiveSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking variant of /application and /application/my, active with the reactive-search profile.
+ * Clients opt in with Accept: application/x-ndjson and get every matching row streamed, one JSON
+ * object per line, without holding a request thread while MySQL works; other requests keep
+ * going to the paged, blocking endpoints of SearchController.
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+@Profile("reactive-search")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveSearchController {
+
+    private final ReactiveSearchService reactiveSearchService;
+    private final UserRepository userRepository;
+
+    @GetMapping(value = "/application", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ApplicationSearchRow> searchApplications(
+            @RequestParam(required = false) String applicationNumber,
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String ownerType,
+            @RequestParam(required = false) String planGUID,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedTo,
+            @RequestParam(defaultValue = "false") boolean currentUserOnly) {
+
+        // The security context is only bound to the request thread, so resolve the user before subscribing
+        String currentUserEmail = SecurityUtils.getCurrentUsername();
+        User currentUser = userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            currentUserOnly = true;
+        }
+
+        SearchCriteria criteria = new SearchCriteria(applicationNumber, ownerType, firstName, lastName, companyName,
+                planGUID, modifiedFrom, modifiedTo, currentUserOnly ? currentUserEmail : null);
+        log.info("Reactive search request received - criteria: {}", criteria);
+        return reactiveSearchService.search(criteria);
+    }
+
+    @GetMapping(value = "/application/my", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ApplicationSearchRow> getMyApplications() {
+        String currentUserEmail = SecurityUtils.getCurrentUsername();
+        if (currentUserEmail == null) {
+            return Flux.empty();
+        }
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setAgentEmail(currentUserEmail);
+        log.info("Reactive search for current user: {}", currentUserEmail);
+        return reactiveSearchService.search(criteria);
+    }
+}
@@ -1,18 +1,46 @@
 package com.backend.api.controller;
 
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.dto.SearchCriteria;
+import com.backend.api.dto.SearchCursor;
+import com.backend.api.dto.SearchFacets;
+import com.backend.api.dto.SearchPageRequest;
+import com.backend.api.dto.SearchResult;
 import com.backend.api.entity.User;
 import com.backend.api.entity.UserRole;
 import com.backend.api.repository.UserRepository;
+import com.backend.api.search.SearchResultCache;
 import com.backend.api.security.SecurityUtils;
+import com.backend.api.service.ParallelQueryExecutor;
+import com.backend.api.service.SearchQuery;
+import com.backend.api.service.SearchQueryBuilder;
 import com.backend.api.service.SearchService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/search")
@@ -21,22 +49,45 @@ import java.util.HashMap;
 @Slf4j
 public class SearchController {
     
+    private static final String CSV_HEADER =
+        "applicationNumber,ownerType,ownerName,companyName,dateOfBirth,primaryAddress,status,lastModifiedDate,createdBy\n";
+    
     private final SearchService searchService;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final SearchResultCache resultCache;
+    private final ParallelQueryExecutor parallelQueries;
     
     @GetMapping("/application")
-    public ResponseEntity<Map<String, Object>> searchApplications(
+    public ResponseEntity<?> searchApplications(
             @RequestParam(required = false) String applicationNumber,
             @RequestParam(required = false) String firstName,
             @RequestParam(required = false) String lastName,
             @RequestParam(required = false) String companyName,
             @RequestParam(required = false) String ownerType,
+            @RequestParam(required = false) String planGUID,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedTo,
             @RequestParam(defaultValue = "false") boolean currentUserOnly,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            @RequestParam(required = false) List<String> fields) {
+        
+        // One deadline for every query of the request, whichever path serves it
+        ParallelQueryExecutor.Deadline deadline = parallelQueries.deadline();
+        log.info("Search request received - applicationNumber: {}, firstName: {}, lastName: {}, companyName: {}, ownerType: {}, planGUID: {}, modifiedFrom: {}, modifiedTo: {}, currentUserOnly: {}, page: {}, size: {}, cursor: {}, includeTotal: {}, fields: {}", 
+                applicationNumber, firstName, lastName, companyName, ownerType, planGUID, modifiedFrom, modifiedTo, currentUserOnly, page, size, cursor, includeTotal, fields);
         
-        log.info("Search request received - applicationNumber: {}, firstName: {}, lastName: {}, companyName: {}, ownerType: {}, currentUserOnly: {}, page: {}, size: {}", 
-                applicationNumber, firstName, lastName, companyName, ownerType, currentUserOnly, page, size);
+        SearchPageRequest pageRequest;
+        Set<SearchQueryBuilder.Column> columns;
+        try {
+            pageRequest = new SearchPageRequest(page, size, SearchCursor.decode(cursor), includeTotal);
+            columns = fields != null ? SearchQueryBuilder.columnsFor(fields) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         
         String currentUserEmail = SecurityUtils.getCurrentUsername();
         User currentUser = userRepository.findByEmail(currentUserEmail)
@@ -51,52 +102,175 @@ public class SearchController {
             log.info("Restricting search to current user: {}", currentUserEmail);
         }
         
-        Map<String, Object> response = new HashMap<>();
-        List<Map<String, Object>> results;
-        long totalItems = 0;
-        
-        if (applicationNumber != null && !applicationNumber.isEmpty()) {
-            results = searchService.searchByApplicationNumber(applicationNumber, page, size, currentUserOnly ? currentUserEmail : null);
-            totalItems = searchService.countByApplicationNumber(applicationNumber, currentUserOnly ? currentUserEmail : null);
-        } else if (ownerType != null && ownerType.equals("individual")) {
-            results = searchService.searchByIndividualOwner(firstName, lastName, page, size, currentUserOnly ? currentUserEmail : null);
-            totalItems = searchService.countByIndividualOwner(firstName, lastName, currentUserOnly ? currentUserEmail : null);
-        } else if (ownerType != null && ownerType.equals("corporate")) {
-            results = searchService.searchByCorporateOwner(companyName, page, size, currentUserOnly ? currentUserEmail : null);
-            totalItems = searchService.countByCorporateOwner(companyName, currentUserOnly ? currentUserEmail : null);
-        } else {
-            if (currentUserOnly && currentUserEmail != null) {
-                results = searchService.getApplicationsByAgent(currentUserEmail, page, size);
-                totalItems = searchService.countApplicationsByAgent(currentUserEmail);
-            } else {
-                results = searchService.getAllApplications(page, size);
-                totalItems = searchService.countAllApplications();
-            }
+        SearchCriteria criteria = new SearchCriteria(applicationNumber, ownerType, firstName, lastName, companyName,
+                planGUID, modifiedFrom, modifiedTo, currentUserOnly ? currentUserEmail : null);
+        
+        SearchResult results;
+        try {
+            results = searchService.search(criteria, pageRequest, columns, deadline);
+        } catch (ParallelQueryExecutor.DeadlineExceededException e) {
+            log.warn("Search timed out: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("error", e.getMessage()));
         }
         
-        int totalPages = (int) Math.ceil((double) totalItems / size);
+        Map<String, Object> response = buildPageResponse(results, page, size);
+        log.info("Search results: found {} total items, returning page {}", results.getTotalItems(), page);
         
-        response.put("content", results);
-        response.put("currentPage", page);
-        response.put("totalItems", totalItems);
-        response.put("totalPages", totalPages);
+        return fields != null ? ResponseEntity.ok(project(response, fields)) : ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Result counts per agent, plan, status and LastModifiedDate month for the same filters as /application
+     */
+    @GetMapping("/application/facets")
+    public ResponseEntity<?> getApplicationFacets(
+            @RequestParam(required = false) String applicationNumber,
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String ownerType,
+            @RequestParam(required = false) String planGUID,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedTo,
+            @RequestParam(defaultValue = "false") boolean currentUserOnly) {
+        
+        ParallelQueryExecutor.Deadline deadline = parallelQueries.deadline();
+        String currentUserEmail = SecurityUtils.getCurrentUsername();
+        User currentUser = userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            currentUserOnly = true;
+        }
         
-        log.info("Search results: found {} total items, returning page {} of {}", totalItems, page, totalPages);
+        SearchCriteria criteria = new SearchCriteria(applicationNumber, ownerType, firstName, lastName, companyName,
+                planGUID, modifiedFrom, modifiedTo, currentUserOnly ? currentUserEmail : null);
         
+        try {
+            SearchFacets facets = searchService.facets(criteria, deadline);
+            log.info("Search facets: {} applications", facets.total());
+            return ResponseEntity.ok(facets);
+        } catch (ParallelQueryExecutor.DeadlineExceededException e) {
+            log.warn("Search facets timed out: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Typo-tolerant search by owner name: "Jon Smyth" finds John Smith. Results are ranked by how close
+     * the owner's name is, then by last modification, and are not paged.
+     */
+    @GetMapping("/application/fuzzy")
+    public ResponseEntity<Map<String, Object>> fuzzySearchApplications(
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        ParallelQueryExecutor.Deadline deadline = parallelQueries.deadline();
+        log.info("Fuzzy search request received - firstName: {}, lastName: {}, limit: {}", firstName, lastName, limit);
+        
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and 100"));
+        }
+        
+        String currentUserEmail = SecurityUtils.getCurrentUsername();
+        User currentUser = userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        String agentEmail = currentUser.getRole() != UserRole.ADMIN ? currentUserEmail : null;
+        
+        List<ApplicationSearchRow> rows;
+        try {
+            rows = searchService.fuzzySearch(firstName, lastName, limit, agentEmail, deadline);
+        } catch (ParallelQueryExecutor.DeadlineExceededException e) {
+            log.warn("Fuzzy search timed out: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("error", e.getMessage()));
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", rows);
+        response.put("totalItems", rows.size());
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Export every application matching the same filters as /application, as NDJSON or CSV.
+     * Rows are streamed from the database straight to the response, so memory use does not grow with the result.
+     */
+    @GetMapping("/application/export")
+    public void exportApplications(
+            @RequestParam(required = false) String applicationNumber,
+            @RequestParam(required = false) String firstName,
+            @RequestParam(required = false) String lastName,
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String ownerType,
+            @RequestParam(required = false) String planGUID,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modifiedTo,
+            @RequestParam(defaultValue = "false") boolean currentUserOnly,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        
+        log.info("Export request received - applicationNumber: {}, firstName: {}, lastName: {}, companyName: {}, ownerType: {}, planGUID: {}, modifiedFrom: {}, modifiedTo: {}, currentUserOnly: {}, format: {}", 
+                applicationNumber, firstName, lastName, companyName, ownerType, planGUID, modifiedFrom, modifiedTo, currentUserOnly, format);
+        
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported export format: " + format);
+            return;
+        }
+        
+        String currentUserEmail = SecurityUtils.getCurrentUsername();
+        User currentUser = userRepository.findByEmail(currentUserEmail)
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            currentUserOnly = true;
+        }
+        SearchQuery query = searchService.query(new SearchCriteria(applicationNumber, ownerType, firstName, lastName,
+                companyName, planGUID, modifiedFrom, modifiedTo, currentUserOnly ? currentUserEmail : null));
+        
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"applications." + (csv ? "csv" : "ndjson") + "\"");
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        long rows;
+        if (csv) {
+            writer.write(CSV_HEADER);
+            rows = searchService.streamQuery(query, row -> writeLine(writer, csvLine(row)));
+        } else {
+            rows = searchService.streamQuery(query, row -> {
+                try {
+                    writeLine(writer, objectMapper.writeValueAsString(row));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+        log.info("Exported {} applications as {}", rows, format);
+    }
+    
     @GetMapping("/application/my")
     public ResponseEntity<Map<String, Object>> getMyApplications(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
         
+        ParallelQueryExecutor.Deadline deadline = parallelQueries.deadline();
         String currentUserEmail = SecurityUtils.getCurrentUsername();
-        log.info("Getting applications for current user: {} (page: {}, size: {})", currentUserEmail, page, size);
+        log.info("Getting applications for current user: {} (page: {}, size: {}, cursor: {}, includeTotal: {})", currentUserEmail, page, size, cursor, includeTotal);
         
-        Map<String, Object> response = new HashMap<>();
+        SearchPageRequest pageRequest;
+        try {
+            pageRequest = new SearchPageRequest(page, size, SearchCursor.decode(cursor), includeTotal);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
         
         if (currentUserEmail == null) {
+            Map<String, Object> response = new HashMap<>();
             response.put("content", List.of());
             response.put("currentPage", page);
             response.put("totalItems", 0);
@@ -104,17 +278,88 @@ public class SearchController {
             return ResponseEntity.ok(response);
         }
         
-        List<Map<String, Object>> results = searchService.getApplicationsByAgent(currentUserEmail, page, size);
-        long totalItems = searchService.countApplicationsByAgent(currentUserEmail);
-        int totalPages = (int) Math.ceil((double) totalItems / size);
+        SearchResult results;
+        try {
+            results = searchService.getApplicationsByAgent(currentUserEmail, pageRequest, deadline);
+        } catch (ParallelQueryExecutor.DeadlineExceededException e) {
+            log.warn("Search timed out: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("error", e.getMessage()));
+        }
         
-        response.put("content", results);
-        response.put("currentPage", page);
-        response.put("totalItems", totalItems);
-        response.put("totalPages", totalPages);
+        log.info("My applications results: found {} total items, returning page {}", results.getTotalItems(), page);
         
-        log.info("My applications results: found {} total items, returning page {} of {}", totalItems, page, totalPages);
+        return ResponseEntity.ok(buildPageResponse(results, page, size));
+    }
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        User currentUser = userRepository.findByEmail(SecurityUtils.getCurrentUsername())
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        if (currentUser.getRole() != UserRole.ADMIN) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Admin access required"));
+        }
+        return ResponseEntity.ok(resultCache.stats());
+    }
+    
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static String csvLine(ApplicationSearchRow row) {
+        return String.join(",",
+            csvField(row.applicationNumber()),
+            csvField(row.ownerType()),
+            csvField(row.ownerName()),
+            csvField(row.companyName()),
+            csvField(row.dateOfBirth()),
+            csvField(row.primaryAddress()),
+            csvField(row.status()),
+            csvField(row.lastModifiedDate()),
+            csvField(row.createdBy()));
+    }
+    
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    
+    /**
+     * The response with only the requested fields of each row, which serializes the rows as they are
+     */
+    private static MappingJacksonValue project(Map<String, Object> response, List<String> fields) {
+        Set<String> selected = new HashSet<>();
+        for (String field : fields) {
+            selected.add(field.trim());
+        }
+        MappingJacksonValue projected = new MappingJacksonValue(response);
+        projected.setFilters(new SimpleFilterProvider().addFilter(ApplicationSearchRow.FIELDS_FILTER,
+                SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        return projected;
+    }
+    
+    private Map<String, Object> buildPageResponse(SearchResult results, int page, int size) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", results.getContent());
+        response.put("currentPage", page);
+        response.put("nextCursor", results.getNextCursor());
+        response.put("hasMore", results.getNextCursor() != null);
         
-        return ResponseEntity.ok(response);
+        if (results.getTotalItems() != null) {
+            long totalItems = results.getTotalItems();
+            response.put("totalItems", totalItems);
+            response.put("totalPages", (int) Math.ceil((double) totalItems / size));
+            response.put("totalExact", results.getTotalExact());
+        }
+        return response;
     }
 } 
\ No newline at end of file
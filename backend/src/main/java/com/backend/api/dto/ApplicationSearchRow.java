@@ -0,0 +1,36 @@
+package com.backend.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.sql.Timestamp;
+
+/**
+ * One application search result. Individual owners carry ownerName and dateOfBirth,
+ * corporate owners carry companyName; the fields that do not apply are left out of the JSON.
+ * A response may select fields through {@link #FIELDS_FILTER}; without one every field is written.
+ */
+@JsonFilter(ApplicationSearchRow.FIELDS_FILTER)
+public record ApplicationSearchRow(
+        String applicationNumber,
+        @JsonIgnore String applicationFormGUID,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String ownerName,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String dateOfBirth,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String companyName,
+        String primaryAddress,
+        String lastModifiedDate,
+        @JsonIgnore Timestamp lastModified,
+        String status,
+        String ownerType,
+        String createdBy) {
+
+    public static final String FIELDS_FILTER = "applicationSearchFields";
+
+    /**
+     * Keyset position of this row, for the nextCursor of a page ending here
+     */
+    public SearchCursor toCursor() {
+        return new SearchCursor(lastModified, applicationFormGUID);
+    }
+}
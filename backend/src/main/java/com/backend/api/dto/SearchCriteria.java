@@ -0,0 +1,47 @@
+package com.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Application search filters. Every non-blank filter applies, combined with AND.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCriteria {
+    private String applicationNumber;
+    private String ownerType; // "individual" or "corporate"; anything else does not filter
+    private String firstName;
+    private String lastName;
+    private String companyName;
+    private String planGUID;
+    private LocalDate modifiedFrom; // inclusive
+    private LocalDate modifiedTo; // inclusive
+    private String agentEmail; // restricts to the agent's applications; null searches all
+
+    public boolean hasFilters() {
+        return present(applicationNumber) || ownerTypeCode() != null || present(firstName) || present(lastName)
+                || present(companyName) || present(planGUID) || modifiedFrom != null || modifiedTo != null;
+    }
+
+    /**
+     * frclient.TypeCode for ownerType, or null when it does not filter
+     */
+    public String ownerTypeCode() {
+        if ("individual".equals(ownerType)) {
+            return "01";
+        }
+        if ("corporate".equals(ownerType)) {
+            return "02";
+        }
+        return null;
+    }
+
+    public static boolean present(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
@@ -0,0 +1,49 @@
+package com.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * Keyset position in the application search ordering (LastModifiedDate DESC, ApplicationFormGUID DESC).
+ * Clients only ever see the opaque string produced by {@link #encode()}.
+ */
+@Data
+@AllArgsConstructor
+public class SearchCursor {
+    private Timestamp lastModifiedDate;
+    private String applicationFormGUID;
+
+    public String encode() {
+        String millis = lastModifiedDate != null ? String.valueOf(lastModifiedDate.getTime()) : "";
+        String raw = millis + "|" + applicationFormGUID;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously returned as nextCursor
+     * @param token The opaque cursor string
+     * @return The decoded cursor, or null if no cursor was supplied
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String millis = raw.substring(0, separator);
+            String applicationFormGUID = raw.substring(separator + 1);
+            if (applicationFormGUID.isEmpty()) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+            Timestamp lastModifiedDate = millis.isEmpty() ? null : new Timestamp(Long.parseLong(millis));
+            return new SearchCursor(lastModifiedDate, applicationFormGUID);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+}
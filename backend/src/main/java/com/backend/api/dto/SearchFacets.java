@@ -0,0 +1,25 @@
+package com.backend.api.dto;
+
+import java.util.List;
+
+/**
+ * Result counts of a search broken down by agent, plan, status and LastModifiedDate month
+ */
+public record SearchFacets(
+        long total,
+        List<Bucket> agents,
+        List<Bucket> plans,
+        List<Bucket> statuses,
+        List<Bucket> months) {
+
+    /**
+     * @param value The grouped value: agent ClientGUID, PlanGUID, StatusCode or yyyy-MM; null for rows without one
+     * @param label Display name where the value is a key, otherwise the value itself
+     */
+    public record Bucket(String value, String label, long count) {
+    }
+
+    public static SearchFacets empty() {
+        return new SearchFacets(0, List.of(), List.of(), List.of(), List.of());
+    }
+}
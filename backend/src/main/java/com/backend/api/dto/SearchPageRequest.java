@@ -0,0 +1,22 @@
+package com.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Page selection for application search. When a cursor is present the query seeks
+ * past it instead of skipping page * size rows. includeTotal=false skips counting
+ * entirely, for callers that only need to know whether another page exists.
+ */
+@Data
+@AllArgsConstructor
+public class SearchPageRequest {
+    private int page;
+    private int size;
+    private SearchCursor cursor;
+    private boolean includeTotal;
+
+    public static SearchPageRequest of(int page, int size) {
+        return new SearchPageRequest(page, size, null, true);
+    }
+}
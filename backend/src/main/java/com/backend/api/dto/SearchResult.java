@@ -0,0 +1,15 @@
+package com.backend.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class SearchResult {
+    private List<ApplicationSearchRow> content;
+    private String nextCursor; // null when this is the last page
+    private Long totalItems; // null when the caller asked for includeTotal=false
+    private Boolean totalExact; // false when totalItems came from the count cache and may lag recent writes
+}
@@ -31,6 +31,10 @@ public class User implements UserDetails {
 
     @Column(nullable = false)
     private String name;
+
+    // frclient row (TypeCode '03') that stands for this user on the applications they write
+    @Column(unique = true, length = 36)
+    private String agentClientGUID;
     
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -0,0 +1,44 @@
+package com.backend.api.premium;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money arithmetic on longs holding whole cents. The rounding rules match
+ * {@code BigDecimal.divide(divisor, 2, RoundingMode.HALF_UP)} exactly:
+ * <ul>
+ *   <li>an amount converts only if it is a whole number of cents that fits in a long; anything else throws, and
+ *       the caller prices with BigDecimal instead</li>
+ *   <li>a quotient rounds to the nearest cent, halves away from zero</li>
+ *   <li>products and sums that overflow a long throw instead of wrapping</li>
+ * </ul>
+ */
+public final class Cents {
+
+    private Cents() {
+    }
+
+    /**
+     * @throws ArithmeticException If the amount has fractions of a cent or does not fit in a long
+     */
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * dividend / divisor rounded half-up, i.e. halves away from zero
+     * @param divisor Must be positive
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        // 2 * remainder >= divisor, without overflowing
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,35 @@
+package com.backend.api.premium;
+
+import java.math.BigDecimal;
+
+/**
+ * How often a premium is paid; each payment is the annual premium over {@link #perYear}
+ */
+public enum PaymentMode {
+    ANNUAL(1),
+    SEMI_ANNUAL(2),
+    QUARTERLY(4),
+    MONTHLY(12);
+
+    private final long perYear;
+
+    PaymentMode(long perYear) {
+        this.perYear = perYear;
+    }
+
+    public long perYear() {
+        return perYear;
+    }
+
+    /**
+     * @return The quote's total premium in this mode
+     */
+    public BigDecimal total(PremiumQuote quote) {
+        return switch (this) {
+            case ANNUAL -> quote.totalAnnual();
+            case SEMI_ANNUAL -> quote.totalSemiAnnual();
+            case QUARTERLY -> quote.totalQuarterly();
+            case MONTHLY -> quote.totalMonthly();
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable pricing input of one application, parsed once from the premium request
+ * ({"application": {ApplicationFormGUID, PlanGUID, roles: [...], coverages: [...]}}).
+ * Numbers are parsed once, by {@link PremiumApplicationDeserializer}, so the calculator never touches strings.
+ */
+@JsonDeserialize(using = PremiumApplicationDeserializer.class)
+public record PremiumApplication(String applicationFormGUID, String planGUID, List<Role> roles, List<Coverage> coverages) {
+
+    public PremiumApplication {
+        roles = List.copyOf(roles);
+        coverages = List.copyOf(coverages);
+    }
+
+    public record Role(String roleGUID, String roleCode, Client client) {
+    }
+
+    public record Client(String clientGUID, String clientName, String companyName, String gender, String tobacco,
+                         String countryCode, String stateCode, String dateOfBirth, String typeCode) {
+    }
+
+    public record Coverage(String coverageGUID, String coverageDefinitionGUID, Details details, List<Role> roles) {
+
+        public Coverage {
+            roles = List.copyOf(roles);
+        }
+
+        public boolean isDerivedFromBase() {
+            return coverageDefinitionGUID.contains("base") || coverageDefinitionGUID.contains("Base");
+        }
+    }
+
+    /**
+     * @param faceAmount Null when the request has none; such a coverage is not priced
+     * @param permFlat Null when none
+     * @param tempFlat Null when none
+     * @param tempFlatDuration Years the temporary flat extra applies, 0 when none
+     */
+    public record Details(BigDecimal faceAmount, String tableRating, BigDecimal permFlat, BigDecimal tempFlat,
+                          int tempFlatDuration, String uwClass) {
+    }
+}
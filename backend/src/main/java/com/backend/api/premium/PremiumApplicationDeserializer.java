@@ -0,0 +1,235 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a premium request token by token straight into a {@link PremiumApplication}, without
+ * building a JsonNode tree. Unknown fields are skipped; missing text fields read as "".
+ */
+public class PremiumApplicationDeserializer extends StdDeserializer<PremiumApplication> {
+
+    private static final long serialVersionUID = 1L;
+
+    public PremiumApplicationDeserializer() {
+        super(PremiumApplication.class);
+    }
+
+    /**
+     * @throws NumberFormatException If a numeric field is not a number
+     */
+    @Override
+    public PremiumApplication deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        PremiumApplication application = null;
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                if ("application".equals(field)) {
+                    application = application(p);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        } else {
+            p.skipChildren();
+        }
+        return application != null ? application : new PremiumApplication("", "", List.of(), List.of());
+    }
+
+    private static PremiumApplication application(JsonParser p) throws IOException {
+        String applicationFormGUID = "";
+        String planGUID = "";
+        List<PremiumApplication.Role> roles = List.of();
+        // A coverage GUID sent twice is priced once, with its last values
+        Map<String, PremiumApplication.Coverage> coverages = new LinkedHashMap<>();
+
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+            return new PremiumApplication(applicationFormGUID, planGUID, roles, List.of());
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "ApplicationFormGUID" -> applicationFormGUID = text(p);
+                case "PlanGUID" -> planGUID = text(p);
+                case "roles" -> roles = roles(p);
+                case "coverages" -> {
+                    if (p.currentToken() == JsonToken.START_ARRAY) {
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            PremiumApplication.Coverage coverage = coverage(p);
+                            coverages.remove(coverage.coverageGUID());
+                            coverages.put(coverage.coverageGUID(), coverage);
+                        }
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+                default -> p.skipChildren();
+            }
+        }
+        return new PremiumApplication(applicationFormGUID, planGUID, roles, new ArrayList<>(coverages.values()));
+    }
+
+    private static PremiumApplication.Coverage coverage(JsonParser p) throws IOException {
+        String coverageGUID = "";
+        String coverageDefinitionGUID = "";
+        PremiumApplication.Details details = null;
+        List<PremiumApplication.Role> roles = List.of();
+
+        if (p.currentToken() == JsonToken.START_OBJECT) {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "CoverageGUID" -> coverageGUID = text(p);
+                    case "CoverageDefinitionGUID" -> coverageDefinitionGUID = text(p);
+                    case "coveragedetails" -> details = details(p);
+                    case "roles" -> roles = roles(p);
+                    default -> p.skipChildren();
+                }
+            }
+        } else {
+            p.skipChildren();
+        }
+        if (details == null) {
+            details = new PremiumApplication.Details(null, "", null, null, 0, "");
+        }
+        return new PremiumApplication.Coverage(coverageGUID, coverageDefinitionGUID, details, roles);
+    }
+
+    private static PremiumApplication.Details details(JsonParser p) throws IOException {
+        BigDecimal faceAmount = null;
+        String tableRating = "";
+        BigDecimal permFlat = null;
+        BigDecimal tempFlat = null;
+        int tempFlatDuration = 0;
+        String uwClass = "";
+
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+        } else {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "FaceAmount" -> faceAmount = decimal(p);
+                    case "TableRating" -> tableRating = text(p);
+                    case "PermFlat" -> permFlat = decimal(p);
+                    case "TempFlat" -> tempFlat = decimal(p);
+                    case "TempFlatDuration" -> tempFlatDuration = integer(p);
+                    case "UWClass" -> uwClass = text(p);
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new PremiumApplication.Details(faceAmount, tableRating, permFlat, tempFlat, tempFlatDuration, uwClass);
+    }
+
+    private static List<PremiumApplication.Role> roles(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return List.of();
+        }
+        List<PremiumApplication.Role> roles = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            String roleGUID = "";
+            String roleCode = "";
+            PremiumApplication.Client client = null;
+            if (p.currentToken() == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    p.nextToken();
+                    switch (field) {
+                        case "RoleGUID" -> roleGUID = text(p);
+                        case "RoleCode" -> roleCode = text(p);
+                        case "client" -> client = client(p);
+                        default -> p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+            if (client == null) {
+                client = new PremiumApplication.Client("", "", "", "", "", "", "", "", "");
+            }
+            roles.add(new PremiumApplication.Role(roleGUID, roleCode, client));
+        }
+        return roles;
+    }
+
+    private static PremiumApplication.Client client(JsonParser p) throws IOException {
+        String clientGUID = "";
+        String clientName = "";
+        String companyName = "";
+        String gender = "";
+        String tobacco = "";
+        String countryCode = "";
+        String stateCode = "";
+        String dateOfBirth = "";
+        String typeCode = "";
+
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            p.skipChildren();
+        } else {
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "ClientGUID" -> clientGUID = text(p);
+                    case "ClientName" -> clientName = text(p);
+                    case "CompanyName" -> companyName = text(p);
+                    case "Gender" -> gender = text(p);
+                    case "Tobacco" -> tobacco = text(p);
+                    case "CountryCode" -> countryCode = text(p);
+                    case "StateCode" -> stateCode = text(p);
+                    case "DateOfBirth" -> dateOfBirth = text(p);
+                    case "TypeCode" -> typeCode = text(p);
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return new PremiumApplication.Client(clientGUID, clientName, companyName, gender, tobacco,
+                countryCode, stateCode, dateOfBirth, typeCode);
+    }
+
+    /**
+     * @return The scalar at the current token as text, or "" for null, objects and arrays
+     */
+    private static String text(JsonParser p) throws IOException {
+        if (p.currentToken().isStructStart()) {
+            p.skipChildren();
+            return "";
+        }
+        return p.getValueAsString("");
+    }
+
+    /**
+     * @return The value, or null when null or blank
+     */
+    private static BigDecimal decimal(JsonParser p) throws IOException {
+        if (p.currentToken().isNumeric()) {
+            return p.getDecimalValue();
+        }
+        String text = text(p).trim();
+        return text.isEmpty() ? null : new BigDecimal(text);
+    }
+
+    /**
+     * @return The whole part of the value, or 0 when null or blank
+     */
+    private static int integer(JsonParser p) throws IOException {
+        BigDecimal value = decimal(p);
+        return value != null ? value.intValue() : 0;
+    }
+}
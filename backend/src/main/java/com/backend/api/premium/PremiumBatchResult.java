@@ -0,0 +1,19 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one request of a batch: its quote, or why it could not be priced
+ * @param index Position of the request in the batch
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PremiumBatchResult(int index, PremiumQuote quote, String error) {
+
+    public static PremiumBatchResult quoted(int index, PremiumQuote quote) {
+        return new PremiumBatchResult(index, quote, null);
+    }
+
+    public static PremiumBatchResult failed(int index, String error) {
+        return new PremiumBatchResult(index, null, error);
+    }
+}
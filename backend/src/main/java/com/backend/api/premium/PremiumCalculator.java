@@ -0,0 +1,169 @@
+package com.backend.api.premium;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prices a parsed {@link PremiumApplication}. A coverage whose plan has a rate for the insured's issue age,
+ * gender, tobacco use and underwriting class costs face amount x rate / 1,000 a year; any other coverage
+ * falls back to face amount / 52. Modal premiums are the exact annual premium over 12, 4 and 2, each
+ * rounded half-up to the cent; totals are sums of the rounded premiums.
+ * <p>
+ * Quotes are computed in long cents (see {@link Cents}). An application whose amounts have fractions of a
+ * cent or would overflow a long is priced with BigDecimal instead, which gives the same result.
+ */
+@Component
+@Slf4j
+public class PremiumCalculator {
+
+    private static final long FALLBACK_DIVISOR = 52;
+    private static final long MONTHS = 12;
+    private static final long QUARTERS = 4;
+    private static final long HALVES = 2;
+
+    @Autowired
+    private RateTables rateTables;
+
+    public PremiumQuote calculate(PremiumApplication application) {
+        log.debug("Calculating premium for application: {}", application.applicationFormGUID());
+
+        List<PremiumApplication.Coverage> coverages = application.coverages();
+        int[] rates = new int[coverages.size()];
+        LocalDate quoteDate = LocalDate.now();
+        for (int i = 0; i < rates.length; i++) {
+            PremiumApplication.Coverage coverage = coverages.get(i);
+            if (coverage.details().faceAmount() == null) {
+                log.warn("Missing face amount for coverage: {}", coverage.coverageGUID());
+                rates[i] = RateTable.MISSING;
+            } else {
+                rates[i] = rate(application, coverage, RateTable.uwClass(coverage.details().uwClass()), quoteDate);
+            }
+        }
+
+        try {
+            return calculateCents(application, rates);
+        } catch (ArithmeticException e) {
+            log.debug("Pricing application {} with BigDecimal: {}", application.applicationFormGUID(), e.getMessage());
+            return calculateDecimal(application, rates);
+        }
+    }
+
+    /**
+     * @throws ArithmeticException If an amount has fractions of a cent or a result overflows a long
+     */
+    static PremiumQuote calculateCents(PremiumApplication application, int[] rates) {
+        long totalAnnual = 0;
+        long totalMonthly = 0;
+        long totalQuarterly = 0;
+        long totalSemiAnnual = 0;
+        List<PremiumQuote.CoveragePremium> premiums = new ArrayList<>(rates.length);
+
+        for (int i = 0; i < rates.length; i++) {
+            PremiumApplication.Coverage coverage = application.coverages().get(i);
+            BigDecimal faceAmount = coverage.details().faceAmount();
+            if (faceAmount == null) {
+                continue;
+            }
+
+            // The annual premium in cents is numerator / divisor, kept unrounded so each mode rounds once
+            long faceCents = Cents.of(faceAmount);
+            long numerator = rates[i] != RateTable.MISSING ? Math.multiplyExact(faceCents, rates[i]) : faceCents;
+            long divisor = rates[i] != RateTable.MISSING ? RateTable.RATE_UNITS : FALLBACK_DIVISOR;
+
+            long annual = Cents.divideHalfUp(numerator, divisor);
+            premiums.add(new PremiumQuote.CoveragePremium(coverage.coverageGUID(), Cents.toDecimal(annual)));
+
+            totalAnnual = Math.addExact(totalAnnual, annual);
+            totalMonthly = Math.addExact(totalMonthly, Cents.divideHalfUp(numerator, divisor * MONTHS));
+            totalQuarterly = Math.addExact(totalQuarterly, Cents.divideHalfUp(numerator, divisor * QUARTERS));
+            totalSemiAnnual = Math.addExact(totalSemiAnnual, Cents.divideHalfUp(numerator, divisor * HALVES));
+        }
+
+        return new PremiumQuote(application.applicationFormGUID(), premiums, Cents.toDecimal(totalAnnual),
+                Cents.toDecimal(totalMonthly), Cents.toDecimal(totalQuarterly), Cents.toDecimal(totalSemiAnnual));
+    }
+
+    /**
+     * The same calculation in BigDecimal, for amounts the long-cents path cannot hold
+     */
+    static PremiumQuote calculateDecimal(PremiumApplication application, int[] rates) {
+        BigDecimal totalAnnual = BigDecimal.ZERO;
+        BigDecimal totalMonthly = BigDecimal.ZERO;
+        BigDecimal totalQuarterly = BigDecimal.ZERO;
+        BigDecimal totalSemiAnnual = BigDecimal.ZERO;
+        List<PremiumQuote.CoveragePremium> premiums = new ArrayList<>(rates.length);
+
+        for (int i = 0; i < rates.length; i++) {
+            PremiumApplication.Coverage coverage = application.coverages().get(i);
+            BigDecimal faceAmount = coverage.details().faceAmount();
+            if (faceAmount == null) {
+                continue;
+            }
+
+            BigDecimal numerator = rates[i] != RateTable.MISSING ? faceAmount.multiply(BigDecimal.valueOf(rates[i])) : faceAmount;
+            long divisor = rates[i] != RateTable.MISSING ? RateTable.RATE_UNITS : FALLBACK_DIVISOR;
+
+            BigDecimal annual = numerator.divide(BigDecimal.valueOf(divisor), 2, RoundingMode.HALF_UP);
+            premiums.add(new PremiumQuote.CoveragePremium(coverage.coverageGUID(), annual));
+
+            totalAnnual = totalAnnual.add(annual);
+            totalMonthly = totalMonthly.add(numerator.divide(BigDecimal.valueOf(divisor * MONTHS), 2, RoundingMode.HALF_UP));
+            totalQuarterly = totalQuarterly.add(numerator.divide(BigDecimal.valueOf(divisor * QUARTERS), 2, RoundingMode.HALF_UP));
+            totalSemiAnnual = totalSemiAnnual.add(numerator.divide(BigDecimal.valueOf(divisor * HALVES), 2, RoundingMode.HALF_UP));
+        }
+
+        return new PremiumQuote(application.applicationFormGUID(), premiums,
+                totalAnnual, totalMonthly, totalQuarterly, totalSemiAnnual);
+    }
+
+    /**
+     * Rate of the coverage's {@link #insured}
+     * @param uwClass See {@link RateTable#uwClass(String)}
+     * @return The rate, or {@link RateTable#MISSING} when the plan has no rate for the insured
+     */
+    int rate(PremiumApplication application, PremiumApplication.Coverage coverage, int uwClass, LocalDate quoteDate) {
+        RateTable table = rateTables.find(application.planGUID(), coverage.coverageDefinitionGUID());
+        PremiumApplication.Client insured = insured(application, coverage);
+        if (table == null || insured == null) {
+            return RateTable.MISSING;
+        }
+        int issueAge = issueAge(insured.dateOfBirth(), quoteDate);
+        int rate = table.rate(issueAge, RateTable.gender(insured.gender()), RateTable.tobacco(insured.tobacco()),
+                uwClass);
+        if (rate == RateTable.MISSING) {
+            log.debug("No rate for coverage {} at age {}, pricing at face amount / 52", coverage.coverageGUID(), issueAge);
+        }
+        return rate;
+    }
+
+    /**
+     * @return The client priced on the coverage, or null when neither the coverage nor the application names one
+     */
+    static PremiumApplication.Client insured(PremiumApplication application, PremiumApplication.Coverage coverage) {
+        List<PremiumApplication.Role> roles = !coverage.roles().isEmpty() ? coverage.roles() : application.roles();
+        return !roles.isEmpty() ? roles.get(0).client() : null;
+    }
+
+    /**
+     * Age last birthday on the quote date, or -1 when the date of birth is not an ISO date
+     */
+    static int issueAge(String dateOfBirth, LocalDate quoteDate) {
+        if (dateOfBirth.length() < 10) {
+            return -1;
+        }
+        try {
+            return Period.between(LocalDate.parse(dateOfBirth.substring(0, 10)), quoteDate).getYears();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.backend.api.premium;
+
+import java.util.List;
+
+/**
+ * Annual premiums of one application per policy year. Entry y of every array is policy year y + 1.
+ * @param totalLevel Per year, the level premiums plus flat extras of all coverages still in force
+ * @param totalRenewal Per year, the renewal premiums plus flat extras of all coverages still in force
+ */
+public record PremiumIllustration(String applicationFormGUID, int durations, List<CoverageIllustration> coverages,
+                                  double[] totalLevel, double[] totalRenewal) {
+
+    public PremiumIllustration {
+        coverages = List.copyOf(coverages);
+    }
+
+    /**
+     * @param issueAge Age last birthday of the insured on the quote date, -1 when unknown
+     * @param rated False when the plan has no rate for the insured and the coverage is priced at face amount / 52
+     * @param years Policy years projected, which is the length of the arrays
+     * @param levelPremium The premium at the issue age rate, every year
+     * @param renewalPremium The premium at the attained age rate of each year
+     * @param flatExtra Permanent flat extras, plus temporary ones during their first TempFlatDuration years
+     */
+    public record CoverageIllustration(String coverageGUID, int issueAge, boolean rated, int years,
+                                       double[] levelPremium, double[] renewalPremium, double[] flatExtra) {
+    }
+}
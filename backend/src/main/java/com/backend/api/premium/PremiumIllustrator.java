@@ -0,0 +1,125 @@
+package com.backend.api.premium;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Projects the premiums of a {@link PremiumApplication} over policy years, in long cents like
+ * {@link PremiumCalculator}. Per coverage:
+ * <ul>
+ *   <li>the level premium is the first-year quote premium, repeated</li>
+ *   <li>the renewal premium of year y uses the rate of attained age issue age + y - 1</li>
+ *   <li>flat extras are dollars per 1,000 of face amount a year; the temporary one stops after TempFlatDuration years</li>
+ * </ul>
+ * A rated coverage runs until the last attained age its rate table covers; an unrated one, priced at
+ * face amount / 52, runs for every duration.
+ */
+@Component
+@Slf4j
+public class PremiumIllustrator {
+
+    public static final int MAX_DURATIONS = 100;
+
+    private static final long FALLBACK_DIVISOR = 52;
+    // Flat extra cents a year = face cents x flat extra cents / (1,000 x 100)
+    private static final long FLAT_EXTRA_DIVISOR = 100_000;
+
+    @Autowired
+    private RateTables rateTables;
+
+    /**
+     * @param durations Policy years to project, 1 to {@link #MAX_DURATIONS}
+     * @throws IllegalArgumentException If durations is out of range, or an amount has fractions of a cent or is too large to project
+     */
+    public PremiumIllustration illustrate(PremiumApplication application, int durations) {
+        if (durations < 1 || durations > MAX_DURATIONS) {
+            throw new IllegalArgumentException("durations must be between 1 and " + MAX_DURATIONS);
+        }
+        log.debug("Illustrating {} years for application: {}", durations, application.applicationFormGUID());
+
+        LocalDate quoteDate = LocalDate.now();
+        long[] totalLevel = new long[durations];
+        long[] totalRenewal = new long[durations];
+        // Scratch buffers, reused across coverages
+        int[] rates = new int[durations];
+        long[] level = new long[durations];
+        long[] renewal = new long[durations];
+        long[] flatExtra = new long[durations];
+        List<PremiumIllustration.CoverageIllustration> illustrations = new ArrayList<>(application.coverages().size());
+
+        for (PremiumApplication.Coverage coverage : application.coverages()) {
+            PremiumApplication.Details details = coverage.details();
+            if (details.faceAmount() == null) {
+                log.warn("Missing face amount for coverage: {}", coverage.coverageGUID());
+                continue;
+            }
+            try {
+                long faceCents = Cents.of(details.faceAmount());
+                PremiumApplication.Client insured = PremiumCalculator.insured(application, coverage);
+                int issueAge = insured != null ? PremiumCalculator.issueAge(insured.dateOfBirth(), quoteDate) : -1;
+                RateTable table = rateTables.find(application.planGUID(), coverage.coverageDefinitionGUID());
+                int rated = table != null && insured != null
+                        ? table.rates(issueAge, RateTable.gender(insured.gender()), RateTable.tobacco(insured.tobacco()),
+                                RateTable.uwClass(details.uwClass()), rates)
+                        : 0;
+
+                int years;
+                if (rated > 0) {
+                    years = rated;
+                    int maxRate = 0;
+                    for (int y = 0; y < years; y++) {
+                        maxRate = Math.max(maxRate, rates[y]);
+                    }
+                    // Bounds every product below, so the loop needs no overflow checks
+                    Math.multiplyExact(faceCents, maxRate);
+                    for (int y = 0; y < years; y++) {
+                        renewal[y] = Cents.divideHalfUp(faceCents * rates[y], RateTable.RATE_UNITS);
+                    }
+                    Arrays.fill(level, 0, years, renewal[0]);
+                } else {
+                    years = durations;
+                    Arrays.fill(level, 0, years, Cents.divideHalfUp(faceCents, FALLBACK_DIVISOR));
+                    Arrays.fill(renewal, 0, years, level[0]);
+                }
+
+                Arrays.fill(flatExtra, 0, years, flatExtra(faceCents, details.permFlat()));
+                long tempFlat = flatExtra(faceCents, details.tempFlat());
+                for (int y = 0, end = Math.min(details.tempFlatDuration(), years); y < end; y++) {
+                    flatExtra[y] += tempFlat;
+                }
+
+                for (int y = 0; y < years; y++) {
+                    totalLevel[y] += level[y] + flatExtra[y];
+                    totalRenewal[y] += renewal[y] + flatExtra[y];
+                }
+                illustrations.add(new PremiumIllustration.CoverageIllustration(coverage.coverageGUID(), issueAge,
+                        rated > 0, years, dollars(level, years), dollars(renewal, years), dollars(flatExtra, years)));
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Coverage " + coverage.coverageGUID() + " cannot be illustrated: "
+                        + "amounts must be whole cents within range");
+            }
+        }
+
+        return new PremiumIllustration(application.applicationFormGUID(), durations, illustrations,
+                dollars(totalLevel, durations), dollars(totalRenewal, durations));
+    }
+
+    private static long flatExtra(long faceCents, BigDecimal flatExtra) {
+        return flatExtra != null ? Cents.divideHalfUp(Math.multiplyExact(faceCents, Cents.of(flatExtra)), FLAT_EXTRA_DIVISOR) : 0;
+    }
+
+    private static double[] dollars(long[] cents, int length) {
+        double[] dollars = new double[length];
+        for (int i = 0; i < length; i++) {
+            dollars[i] = cents[i] / 100.0;
+        }
+        return dollars;
+    }
+}
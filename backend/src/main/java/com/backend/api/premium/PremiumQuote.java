@@ -0,0 +1,22 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Premiums of one application: the annual premium per priced coverage, and the totals per payment mode.
+ * Written as one flat object, see {@link PremiumQuoteSerializer}.
+ */
+@JsonSerialize(using = PremiumQuoteSerializer.class)
+public record PremiumQuote(String applicationFormGUID, List<CoveragePremium> coverages, BigDecimal totalAnnual,
+                           BigDecimal totalMonthly, BigDecimal totalQuarterly, BigDecimal totalSemiAnnual) {
+
+    public PremiumQuote {
+        coverages = List.copyOf(coverages);
+    }
+
+    public record CoveragePremium(String coverageGUID, BigDecimal annual) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.backend.api.premium;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of premium quotes, weighed by an estimate of their heap size. Entries are keyed by a
+ * canonical encoding of the fields that affect price (plan, and per coverage its definition, face amount,
+ * rating, flat extras, UW class and the insured's issue age, gender and tobacco use), so requests that
+ * differ only in GUIDs, names or addresses share an entry. The whole cache is dropped when rates reload.
+ */
+@Component
+@Slf4j
+public class PremiumQuoteCache {
+
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int COVERAGE_OVERHEAD = 48;
+
+    @Autowired
+    private RateTables rateTables;
+
+    @Value("${premium.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${premium.cache.max-bytes:8388608}")
+    private long maxBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weight;
+    // Rate version the entries were priced at
+    private long rateVersion;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Amounts of a quote, by coverage position rather than GUID
+     * @param annual Annual premium per coverage of the application, null where it was not priced
+     */
+    private record Entry(BigDecimal[] annual, BigDecimal totalAnnual, BigDecimal totalMonthly,
+                         BigDecimal totalQuarterly, BigDecimal totalSemiAnnual, long weight) {
+
+        PremiumQuote quote(PremiumApplication application) {
+            List<PremiumQuote.CoveragePremium> premiums = new ArrayList<>(annual.length);
+            for (int i = 0; i < annual.length; i++) {
+                if (annual[i] != null) {
+                    premiums.add(new PremiumQuote.CoveragePremium(application.coverages().get(i).coverageGUID(), annual[i]));
+                }
+            }
+            return new PremiumQuote(application.applicationFormGUID(), premiums,
+                    totalAnnual, totalMonthly, totalQuarterly, totalSemiAnnual);
+        }
+    }
+
+    /**
+     * Return the cached quote of an application priced the same way, or calculate and cache it
+     */
+    public PremiumQuote get(PremiumApplication application, Supplier<PremiumQuote> calculate) {
+        if (!enabled) {
+            return calculate.get();
+        }
+        long version = rateTables.version();
+        String key = key(application, LocalDate.now());
+        Entry cached = lookup(key, version);
+        if (cached != null) {
+            return cached.quote(application);
+        }
+
+        PremiumQuote quote = calculate.get();
+        store(key, entry(application, quote, key), version);
+        return quote;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        stats.put("entries", entries.size());
+        stats.put("weightBytes", weight);
+        stats.put("maxBytes", maxBytes);
+        return stats;
+    }
+
+    /**
+     * Canonical encoding of the pricing inputs. Codes replace free text where the calculator
+     * normalises it, and face amounts are compared by value, so "100000" and 100000.00 match.
+     */
+    static String key(PremiumApplication application, LocalDate quoteDate) {
+        StringBuilder key = new StringBuilder(64 + 64 * application.coverages().size());
+        key.append(application.planGUID());
+        for (PremiumApplication.Coverage coverage : application.coverages()) {
+            PremiumApplication.Details details = coverage.details();
+            PremiumApplication.Client insured = PremiumCalculator.insured(application, coverage);
+            key.append('\u001e').append(coverage.coverageDefinitionGUID())
+                    .append('\u001f').append(amount(details.faceAmount()))
+                    .append('\u001f').append(details.tableRating())
+                    .append('\u001f').append(amount(details.permFlat()))
+                    .append('\u001f').append(amount(details.tempFlat()))
+                    .append('\u001f').append(details.tempFlatDuration())
+                    .append('\u001f').append(RateTable.uwClass(details.uwClass()));
+            if (insured != null) {
+                key.append('\u001f').append(PremiumCalculator.issueAge(insured.dateOfBirth(), quoteDate))
+                        .append('\u001f').append(RateTable.gender(insured.gender()))
+                        .append('\u001f').append(RateTable.tobacco(insured.tobacco()));
+            }
+        }
+        return key.toString();
+    }
+
+    private static String amount(BigDecimal amount) {
+        return amount != null ? amount.stripTrailingZeros().toPlainString() : "";
+    }
+
+    private static Entry entry(PremiumApplication application, PremiumQuote quote, String key) {
+        BigDecimal[] annual = new BigDecimal[application.coverages().size()];
+        Iterator<PremiumQuote.CoveragePremium> premiums = quote.coverages().iterator();
+        PremiumQuote.CoveragePremium next = premiums.hasNext() ? premiums.next() : null;
+        for (int i = 0; i < annual.length && next != null; i++) {
+            if (next.coverageGUID().equals(application.coverages().get(i).coverageGUID())) {
+                annual[i] = next.annual();
+                next = premiums.hasNext() ? premiums.next() : null;
+            }
+        }
+        long weight = ENTRY_OVERHEAD + 2L * key.length() + (long) COVERAGE_OVERHEAD * annual.length;
+        return new Entry(annual, quote.totalAnnual(), quote.totalMonthly(), quote.totalQuarterly(),
+                quote.totalSemiAnnual(), weight);
+    }
+
+    private synchronized Entry lookup(String key, long version) {
+        if (version != rateVersion) {
+            invalidations += entries.size();
+            entries.clear();
+            weight = 0;
+            rateVersion = version;
+            log.info("Premium quote cache cleared after a rate change");
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Cache the entry, unless rates changed since it was priced
+     */
+    private synchronized void store(String key, Entry entry, long version) {
+        if (version != rateVersion || version != rateTables.version() || entry.weight() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entry.weight();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (weight > maxBytes && it.hasNext()) {
+            weight -= it.next().getValue().weight();
+            evictions++;
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PremiumQuote} straight to the generator as the flat object the UI reads:
+ * "&lt;CoverageGUID&gt;_premium" per coverage, then "&lt;ApplicationFormGUID&gt;_total&lt;Mode&gt;Premium" per payment mode
+ */
+public class PremiumQuoteSerializer extends StdSerializer<PremiumQuote> {
+
+    private static final long serialVersionUID = 1L;
+
+    public PremiumQuoteSerializer() {
+        super(PremiumQuote.class);
+    }
+
+    @Override
+    public void serialize(PremiumQuote quote, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        for (PremiumQuote.CoveragePremium premium : quote.coverages()) {
+            gen.writeNumberField(premium.coverageGUID() + "_premium", premium.annual().doubleValue());
+        }
+        String applicationGUID = quote.applicationFormGUID();
+        gen.writeNumberField(applicationGUID + "_totalAnnualPremium", quote.totalAnnual().doubleValue());
+        gen.writeNumberField(applicationGUID + "_totalMonthlyPremium", quote.totalMonthly().doubleValue());
+        gen.writeNumberField(applicationGUID + "_totalQuarterlyPremium", quote.totalQuarterly().doubleValue());
+        gen.writeNumberField(applicationGUID + "_totalSemiAnnualPremium", quote.totalSemiAnnual().doubleValue());
+        gen.writeEndObject();
+    }
+}
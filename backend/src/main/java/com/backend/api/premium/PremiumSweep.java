@@ -0,0 +1,33 @@
+package com.backend.api.premium;
+
+import java.util.List;
+
+/**
+ * Premiums of an application over a grid of face amounts and UW classes of one coverage,
+ * all other inputs unchanged
+ * @param faceAmounts The face amounts swept, in order; entry f of every series is priced at faceAmounts[f]
+ * @param series One per UW class
+ */
+public record PremiumSweep(String coverageGUID, PaymentMode mode, double[] faceAmounts, List<Series> series) {
+
+    public PremiumSweep {
+        series = List.copyOf(series);
+    }
+
+    /**
+     * @param rated False when the plan has no rate for the insured in this class and the coverage is priced at face amount / 52
+     * @param coveragePremium The swept coverage's premium per face amount
+     * @param totalPremium The application's total premium per face amount
+     */
+    public record Series(String uwClass, boolean rated, double[] coveragePremium, double[] totalPremium) {
+    }
+
+    /**
+     * The largest face amount whose application total premium stays within a target
+     * @param faceAmount Null when the other coverages alone already cost more than the target
+     * @param totalPremium The application's total premium at faceAmount
+     */
+    public record Solution(String coverageGUID, PaymentMode mode, String uwClass, double targetPremium,
+                           Double faceAmount, Double coveragePremium, Double totalPremium) {
+    }
+}
@@ -0,0 +1,196 @@
+package com.backend.api.premium;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What-if pricing of one coverage of a parsed application. The other coverages are priced once; then each
+ * UW class resolves its rate once and every face amount of the grid is one multiply and one rounded divide
+ * in long cents, with the same rules as {@link PremiumCalculator}. A grid cell therefore equals the quote of
+ * the application with those values. The calculator does not price table ratings, so neither does a sweep.
+ */
+@Component
+@Slf4j
+public class PremiumSweeper {
+
+    private static final long FALLBACK_DIVISOR = 52;
+
+    @Autowired
+    private PremiumCalculator premiumCalculator;
+
+    @Value("${premium.sweep.max-cells:100000}")
+    private int maxCells;
+
+    /**
+     * A coverage with its rate resolved: its premium in cents is round-half-up(face cents x multiplier / divisor)
+     */
+    private record Pricing(boolean rated, long multiplier, long divisor) {
+
+        long premium(long faceCents) {
+            return Cents.divideHalfUp(faceCents * multiplier, divisor);
+        }
+    }
+
+    /**
+     * @param coverageGUID The coverage to vary, or null for the first one
+     * @param uwClasses UW classes to price, or empty for the coverage's own
+     * @throws IllegalArgumentException If the coverage is unknown, the face range is empty or not in whole cents,
+     *                                  or the grid is larger than premium.sweep.max-cells
+     */
+    public PremiumSweep sweep(PremiumApplication application, String coverageGUID, BigDecimal faceFrom,
+                              BigDecimal faceTo, BigDecimal faceStep, List<String> uwClasses, PaymentMode mode) {
+        int index = coverageIndex(application, coverageGUID);
+        PremiumApplication.Coverage coverage = application.coverages().get(index);
+        List<String> classes = uwClasses == null || uwClasses.isEmpty() ? List.of(coverage.details().uwClass()) : uwClasses;
+
+        long fromCents = cents(faceFrom, "faceFrom");
+        long toCents = cents(faceTo, "faceTo");
+        long stepCents = cents(faceStep, "faceStep");
+        if (stepCents <= 0 || toCents < fromCents) {
+            throw new IllegalArgumentException("faceStep must be positive and faceTo at least faceFrom");
+        }
+        long faces = (toCents - fromCents) / stepCents + 1;
+        if (faces > maxCells || faces * classes.size() > maxCells) {
+            throw new IllegalArgumentException("A sweep prices at most " + maxCells + " premiums");
+        }
+        log.debug("Sweeping {} face amounts x {} UW classes for coverage {}", faces, classes.size(), coverage.coverageGUID());
+
+        long[] faceCents = new long[(int) faces];
+        for (int f = 0; f < faceCents.length; f++) {
+            faceCents[f] = fromCents + f * stepCents;
+        }
+        long maxFace = Math.max(Math.abs(faceCents[0]), Math.abs(faceCents[faceCents.length - 1]));
+        long others = otherCoverages(application, index, mode);
+        LocalDate quoteDate = LocalDate.now();
+
+        List<PremiumSweep.Series> series = new ArrayList<>(classes.size());
+        long[] premiums = new long[faceCents.length];
+        for (String uwClass : classes) {
+            Pricing pricing = pricing(application, coverage, uwClass, mode, quoteDate);
+            try {
+                // Bounds every product of the loop below
+                Math.multiplyExact(maxFace, pricing.multiplier());
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Face amounts are too large to price");
+            }
+            for (int f = 0; f < faceCents.length; f++) {
+                premiums[f] = pricing.premium(faceCents[f]);
+            }
+            double[] coveragePremium = new double[premiums.length];
+            double[] totalPremium = new double[premiums.length];
+            for (int f = 0; f < premiums.length; f++) {
+                coveragePremium[f] = premiums[f] / 100.0;
+                totalPremium[f] = (premiums[f] + others) / 100.0;
+            }
+            series.add(new PremiumSweep.Series(uwClass, pricing.rated(), coveragePremium, totalPremium));
+        }
+
+        double[] faceAmounts = new double[faceCents.length];
+        for (int f = 0; f < faceCents.length; f++) {
+            faceAmounts[f] = faceCents[f] / 100.0;
+        }
+        return new PremiumSweep(coverage.coverageGUID(), mode, faceAmounts, series);
+    }
+
+    /**
+     * Find the largest multiple of faceStep for the coverage whose application total premium in the mode
+     * is at most targetPremium
+     * @param uwClass UW class to price, or null for the coverage's own
+     * @throws IllegalArgumentException If the coverage is unknown, an amount is not in whole cents, or the
+     *                                  coverage has a zero premium so no largest face amount exists
+     */
+    public PremiumSweep.Solution solve(PremiumApplication application, String coverageGUID, BigDecimal targetPremium,
+                                       PaymentMode mode, BigDecimal faceStep, String uwClass) {
+        int index = coverageIndex(application, coverageGUID);
+        PremiumApplication.Coverage coverage = application.coverages().get(index);
+        String solveClass = uwClass != null ? uwClass : coverage.details().uwClass();
+
+        long targetCents = cents(targetPremium, "targetPremium");
+        long stepCents = cents(faceStep, "faceStep");
+        if (stepCents <= 0) {
+            throw new IllegalArgumentException("faceStep must be positive");
+        }
+        long others = otherCoverages(application, index, mode);
+        Pricing pricing = pricing(application, coverage, solveClass, mode, LocalDate.now());
+        long budget = targetCents - others;
+        if (budget < 0) {
+            return new PremiumSweep.Solution(coverage.coverageGUID(), mode, solveClass, targetCents / 100.0,
+                    null, null, null);
+        }
+        if (pricing.multiplier() == 0) {
+            throw new IllegalArgumentException("Coverage " + coverage.coverageGUID() + " has a zero premium at any face amount");
+        }
+
+        // Premiums never decrease with the face amount: binary search the step count, up to the largest that cannot overflow
+        long unit;
+        try {
+            unit = Math.multiplyExact(stepCents, pricing.multiplier());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("faceStep is too large to price");
+        }
+        long low = 0;
+        long high = Long.MAX_VALUE / unit;
+        if (pricing.premium(high * stepCents) > budget) {
+            while (low < high) {
+                long middle = low + (high - low + 1) / 2;
+                if (pricing.premium(middle * stepCents) <= budget) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+        } else {
+            low = high;
+        }
+
+        long faceCents = low * stepCents;
+        long premium = pricing.premium(faceCents);
+        return new PremiumSweep.Solution(coverage.coverageGUID(), mode, solveClass, targetCents / 100.0,
+                faceCents / 100.0, premium / 100.0, (premium + others) / 100.0);
+    }
+
+    private Pricing pricing(PremiumApplication application, PremiumApplication.Coverage coverage, String uwClass,
+                            PaymentMode mode, LocalDate quoteDate) {
+        int rate = premiumCalculator.rate(application, coverage, RateTable.uwClass(uwClass), quoteDate);
+        boolean rated = rate != RateTable.MISSING;
+        return new Pricing(rated, rated ? rate : 1, (rated ? RateTable.RATE_UNITS : FALLBACK_DIVISOR) * mode.perYear());
+    }
+
+    /**
+     * @return The total premium in the mode, in cents, of every coverage but the one at index
+     */
+    private long otherCoverages(PremiumApplication application, int index, PaymentMode mode) {
+        List<PremiumApplication.Coverage> others = new ArrayList<>(application.coverages());
+        others.remove(index);
+        PremiumQuote quote = premiumCalculator.calculate(new PremiumApplication(application.applicationFormGUID(),
+                application.planGUID(), application.roles(), others));
+        return cents(mode.total(quote), "premium");
+    }
+
+    private static int coverageIndex(PremiumApplication application, String coverageGUID) {
+        List<PremiumApplication.Coverage> coverages = application.coverages();
+        for (int i = 0; i < coverages.size(); i++) {
+            if (coverageGUID == null || coverageGUID.isEmpty() || coverages.get(i).coverageGUID().equals(coverageGUID)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(coverageGUID == null || coverageGUID.isEmpty()
+                ? "The application has no coverage"
+                : "Coverage not found: " + coverageGUID);
+    }
+
+    private static long cents(BigDecimal amount, String name) {
+        try {
+            return Cents.of(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " must be a whole number of cents");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.backend.api.premium;
+
+import java.util.Arrays;
+
+/**
+ * Rates of one coverage definition of one plan, for every issue age between minAge and maxAge,
+ * gender, tobacco use and underwriting class. Rates are annual premiums per 1,000 of face amount
+ * in units of 0.0001, packed into one int array indexed by arithmetic on the rating key, so a
+ * lookup is a bounds check and an array read.
+ */
+public final class RateTable {
+
+    /**
+     * Marks a rating key with no rate
+     */
+    public static final int MISSING = -1;
+
+    /**
+     * Units of a rate per unit of face amount: rates are per 1,000 and scaled by 10,000
+     */
+    public static final long RATE_UNITS = 10_000_000L;
+
+    static final int GENDERS = 2;
+    static final int TOBACCO = 2;
+    static final int UW_CLASSES = 4;
+
+    private final int minAge;
+    private final int maxAge;
+    private final int[] rates;
+
+    RateTable(int minAge, int maxAge) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.rates = new int[(maxAge - minAge + 1) * GENDERS * TOBACCO * UW_CLASSES];
+        Arrays.fill(rates, MISSING);
+    }
+
+    void set(int issueAge, int gender, int tobacco, int uwClass, int rate) {
+        rates[index(issueAge, gender, tobacco, uwClass)] = rate;
+    }
+
+    /**
+     * @param gender See {@link #gender(String)}
+     * @param tobacco See {@link #tobacco(String)}
+     * @param uwClass See {@link #uwClass(String)}
+     * @return The rate in units of 0.0001 per 1,000 of face amount, or {@link #MISSING}
+     */
+    public int rate(int issueAge, int gender, int tobacco, int uwClass) {
+        if (issueAge < minAge || issueAge > maxAge || gender < 0 || tobacco < 0 || uwClass < 0) {
+            return MISSING;
+        }
+        return rates[index(issueAge, gender, tobacco, uwClass)];
+    }
+
+    /**
+     * Copy the rates for attained ages issueAge, issueAge + 1, ... into {@code into}, stopping at the first age
+     * without a rate or when it is full
+     * @return The number of rates copied, 0 when there is no rate at issueAge
+     */
+    public int rates(int issueAge, int gender, int tobacco, int uwClass, int[] into) {
+        if (rate(issueAge, gender, tobacco, uwClass) == MISSING) {
+            return 0;
+        }
+        // Consecutive ages of one rating key are a fixed stride apart
+        int stride = GENDERS * TOBACCO * UW_CLASSES;
+        int count = Math.min(into.length, maxAge - issueAge + 1);
+        for (int i = 0, index = index(issueAge, gender, tobacco, uwClass); i < count; i++, index += stride) {
+            if (rates[index] == MISSING) {
+                return i;
+            }
+            into[i] = rates[index];
+        }
+        return count;
+    }
+
+    private int index(int issueAge, int gender, int tobacco, int uwClass) {
+        return ((issueAge - minAge) * GENDERS + gender) * TOBACCO * UW_CLASSES + tobacco * UW_CLASSES + uwClass;
+    }
+
+    /**
+     * @return 0 for male ("M", "Male"), 1 for female ("F", "Female"), -1 otherwise
+     */
+    public static int gender(String gender) {
+        if (gender.equalsIgnoreCase("M") || gender.equalsIgnoreCase("Male")) {
+            return 0;
+        }
+        if (gender.equalsIgnoreCase("F") || gender.equalsIgnoreCase("Female")) {
+            return 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return 0 for non-tobacco ("N", "Non-Smoker"), 1 for tobacco ("Y", "Smoker"), -1 otherwise
+     */
+    public static int tobacco(String tobacco) {
+        if (tobacco.equalsIgnoreCase("N") || tobacco.equalsIgnoreCase("Non-Smoker")) {
+            return 0;
+        }
+        if (tobacco.equalsIgnoreCase("Y") || tobacco.equalsIgnoreCase("Smoker")) {
+            return 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return 0 to 3 for the classes "01" to "04", also accepted by name ("Standard" to "Preferred Plus"), -1 otherwise
+     */
+    public static int uwClass(String uwClass) {
+        return switch (uwClass) {
+            case "01", "Standard" -> 0;
+            case "02", "Standard Plus" -> 1;
+            case "03", "Preferred" -> 2;
+            case "04", "Preferred Plus" -> 3;
+            default -> -1;
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof RateTable other
+                && minAge == other.minAge && maxAge == other.maxAge && Arrays.equals(rates, other.rates);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * minAge + maxAge) + Arrays.hashCode(rates);
+    }
+}
@@ -0,0 +1,100 @@
+package com.backend.api.premium;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All rows of premium_rate, loaded into one {@link RateTable} per plan and coverage definition.
+ * Reloaded periodically; lookups read an immutable snapshot and never touch the database.
+ */
+@Component
+@Slf4j
+public class RateTables {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${premium.rates.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), 0);
+
+    /**
+     * @param version Bumped by every reload that changed a rate
+     */
+    private record Snapshot(Map<String, Map<String, RateTable>> tables, long version) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${premium.rates.refresh-interval-ms:600000}",
+               fixedDelayString = "${premium.rates.refresh-interval-ms:600000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Map<String, Map<String, RateTable>> tables = new HashMap<>();
+            // Size every table from its age range first, so rates are written straight into the final arrays
+            jdbcTemplate.query("""
+                SELECT PlanGUID, CoverageDefinitionGUID, MIN(IssueAge) AS minAge, MAX(IssueAge) AS maxAge
+                FROM premium_rate
+                GROUP BY PlanGUID, CoverageDefinitionGUID
+                """, rs -> {
+                tables.computeIfAbsent(rs.getString("PlanGUID"), plan -> new HashMap<>())
+                        .put(rs.getString("CoverageDefinitionGUID"), new RateTable(rs.getInt("minAge"), rs.getInt("maxAge")));
+            });
+            int[] rates = new int[1];
+            jdbcTemplate.query("""
+                SELECT PlanGUID, CoverageDefinitionGUID, IssueAge, Gender, Tobacco, UWClass, Rate
+                FROM premium_rate
+                """, rs -> {
+                int gender = RateTable.gender(rs.getString("Gender"));
+                int tobacco = RateTable.tobacco(rs.getString("Tobacco"));
+                int uwClass = RateTable.uwClass(rs.getString("UWClass"));
+                if (gender < 0 || tobacco < 0 || uwClass < 0) {
+                    log.warn("Skipping premium rate with unknown rating key: {}/{}/{}",
+                            rs.getString("Gender"), rs.getString("Tobacco"), rs.getString("UWClass"));
+                    return;
+                }
+                RateTable table = tables.get(rs.getString("PlanGUID")).get(rs.getString("CoverageDefinitionGUID"));
+                table.set(rs.getInt("IssueAge"), gender, tobacco, uwClass,
+                        rs.getBigDecimal("Rate").movePointRight(4).intValueExact());
+                rates[0]++;
+            });
+
+            Snapshot current = snapshot;
+            if (!tables.equals(current.tables())) {
+                snapshot = new Snapshot(tables, current.version() + 1);
+            }
+            log.info("Premium rates loaded in {} ms: {} rates, {} plans",
+                    System.currentTimeMillis() - start, rates[0], tables.size());
+        } catch (Exception e) {
+            log.warn("Premium rates could not be loaded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The rates of the coverage definition, or null when the plan has none for it
+     */
+    public RateTable find(String planGUID, String coverageDefinitionGUID) {
+        Map<String, RateTable> plan = snapshot.tables().get(planGUID);
+        return plan != null ? plan.get(coverageDefinitionGUID) : null;
+    }
+
+    /**
+     * @return A number that changes whenever a reload changes any rate
+     */
+    public long version() {
+        return snapshot.version();
+    }
+}
@@ -0,0 +1,590 @@
+package com.backend.api.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process trigram index over the columns application search filters with LIKE '%x%':
+ * ApplicationFormNumber (keyed by ApplicationFormGUID) and the FirstName, LastName and
+ * CompanyName of frclient (keyed by ClientGUID). SearchService turns a term into a short
+ * list of primary keys here, so MySQL does key lookups instead of scanning for the pattern.
+ *
+ * Every indexed write is also recorded in search_index_change, and every instance polls that log,
+ * so instances stay in step with each other's writes. Until a logged change has been applied here
+ * the index is behind: {@link #isCurrent()} is false and searches fall back to SQL LIKE rather than
+ * miss the changed row. When search.index.segment-dir is set the index is also checkpointed to
+ * memory-mapped segment files; a restarted instance maps the last checkpoint and replays only the
+ * rows changed since, instead of reloading both tables.
+ *
+ * Individual client names are also held in a FuzzyNameIndex for typo-tolerant lookups. It lives
+ * on the heap, and is checkpointed next to the segments with its phonetic keys, so opening a
+ * checkpoint reads it back from the file rather than from frclient.
+ */
+@Component
+@Slf4j
+public class ApplicationSearchIndex {
+
+    private static final String[] FIELD_NAMES = {"applicationNumber", "firstName", "lastName", "companyName"};
+    private static final String NAMES_FILE = "names";
+    private static final String CHECKPOINT_FILE = "checkpoint.properties";
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.max-candidates:1000}")
+    private int maxCandidates;
+
+    @Value("${search.index.segment-dir:}")
+    private String segmentDir;
+
+    // Changes are re-read from this far before the last poll, to cover transactions that committed late
+    @Value("${search.index.change-overlap-ms:60000}")
+    private long changeOverlapMs;
+
+    @Value("${search.index.change-retention-ms:604800000}")
+    private long changeRetentionMs;
+
+    private volatile Fields fields = new Fields();
+    private volatile boolean ready;
+
+    // Changes committed while a rebuild or checkpoint is running, replayed onto the new index before it goes live
+    private List<Consumer<Fields>> pendingChanges;
+
+    // Serializes load, rebuild, poll and checkpoint; searches and writes never wait on it
+    private final Object maintenance = new Object();
+    private volatile Timestamp pollCursor;
+    private long generation;
+    // ChangeSeq of every logged change within the poll window that this instance has applied
+    private final Set<Long> appliedChanges = ConcurrentHashMap.newKeySet();
+
+    private static class Fields {
+        final SearchIndexField applicationNumber;
+        final SearchIndexField firstName;
+        final SearchIndexField lastName;
+        final SearchIndexField companyName;
+        final FuzzyNameIndex names;
+
+        Fields() {
+            this(new FuzzyNameIndex(), new SearchIndexField(), new SearchIndexField(), new SearchIndexField(), new SearchIndexField());
+        }
+
+        Fields(FuzzyNameIndex names, SearchIndexField... all) {
+            this.names = names;
+            this.applicationNumber = all[0];
+            this.firstName = all[1];
+            this.lastName = all[2];
+            this.companyName = all[3];
+        }
+
+        SearchIndexField[] all() {
+            return new SearchIndexField[] {applicationNumber, firstName, lastName, companyName};
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (maintenance) {
+            if (isPersistent() && openCheckpoint()) {
+                pollChanges();
+                return;
+            }
+            rebuild();
+            if (isPersistent() && ready) {
+                checkpoint();
+            }
+        }
+    }
+
+    /**
+     * Periodic full reload of the plain in-memory index, which also picks up rows written without going
+     * through it. With segments configured the index is long-lived and relies on the change log alone.
+     */
+    @Scheduled(initialDelayString = "${search.index.refresh-interval-ms:600000}",
+               fixedDelayString = "${search.index.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (enabled && !isPersistent()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.index.poll-interval-ms:30000}",
+               fixedDelayString = "${search.index.poll-interval-ms:30000}")
+    public void poll() {
+        if (enabled && ready) {
+            pollChanges();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${search.index.checkpoint-interval-ms:3600000}",
+               fixedDelayString = "${search.index.checkpoint-interval-ms:3600000}")
+    public void scheduledCheckpoint() {
+        if (enabled && isPersistent() && ready) {
+            checkpoint();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (maintenance) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                Timestamp loadedFrom = databaseTime();
+                Fields rebuilt = new Fields();
+                jdbcTemplate.query(
+                    "SELECT ApplicationFormGUID, ApplicationFormNumber FROM frapplicationform",
+                    rs -> {
+                        rebuilt.applicationNumber.put(rs.getString("ApplicationFormGUID"), rs.getString("ApplicationFormNumber"));
+                    }
+                );
+                jdbcTemplate.query(
+                    "SELECT ClientGUID, FirstName, LastName, CompanyName FROM frclient WHERE TypeCode IN ('01', '02')",
+                    rs -> {
+                        String clientGUID = rs.getString("ClientGUID");
+                        rebuilt.firstName.put(clientGUID, rs.getString("FirstName"));
+                        rebuilt.lastName.put(clientGUID, rs.getString("LastName"));
+                        rebuilt.companyName.put(clientGUID, rs.getString("CompanyName"));
+                        rebuilt.names.put(clientGUID, rs.getString("FirstName"), rs.getString("LastName"));
+                    }
+                );
+                synchronized (this) {
+                    pendingChanges.forEach(change -> change.accept(rebuilt));
+                    pendingChanges = null;
+                    fields = rebuilt;
+                    ready = true;
+                }
+                pollCursor = loadedFrom;
+                log.info("Search index loaded: {} applications, {} clients in {} ms",
+                        rebuilt.applicationNumber.size(), rebuilt.firstName.size(), System.currentTimeMillis() - start);
+                // Marks the changes logged around the reload as applied, so the index reads as current
+                pollChanges();
+            } catch (Exception e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+                log.warn("Search index could not be loaded, searches will use SQL LIKE: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Write the current index to a new generation of segment files and record the change-log
+     * position it covers. Segments of earlier generations are deleted once the new one is live.
+     */
+    public void checkpoint() {
+        synchronized (maintenance) {
+            long start = System.currentTimeMillis();
+            Fields current;
+            Timestamp covered = pollCursor;
+            synchronized (this) {
+                current = fields;
+                pendingChanges = new ArrayList<>();
+            }
+            try {
+                Path dir = Paths.get(segmentDir);
+                Files.createDirectories(dir);
+                if (generation > 0 && Arrays.stream(current.all()).allMatch(field -> field.changeCount() == 0)) {
+                    synchronized (this) {
+                        pendingChanges = null;
+                    }
+                    writeCheckpoint(dir, generation, covered);
+                    return;
+                }
+                long next = generation + 1;
+                SearchIndexField[] written = new SearchIndexField[FIELD_NAMES.length];
+                SearchIndexField[] all = current.all();
+                for (int i = 0; i < all.length; i++) {
+                    written[i] = all[i].checkpoint(dir.resolve(FIELD_NAMES[i] + "-" + next + ".seg"));
+                }
+                current.names.write(dir.resolve(NAMES_FILE + "-" + next + ".seg"));
+                Fields checkpointed = new Fields(current.names, written);
+                synchronized (this) {
+                    pendingChanges.forEach(change -> change.accept(checkpointed));
+                    pendingChanges = null;
+                    fields = checkpointed;
+                }
+                writeCheckpoint(dir, next, covered);
+                generation = next;
+                deleteOtherGenerations(dir, next);
+                log.info("Search index checkpoint {} written in {} ms", next, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                synchronized (this) {
+                    pendingChanges = null;
+                }
+                log.warn("Search index checkpoint failed, keeping the previous one: {}", e.getMessage());
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Whether every change in the poll window of search_index_change, from this instance or another, has been
+     * applied here. While it is not, a row may be missing from what the find methods return. A change whose
+     * transaction commits more than search.index.change-overlap-ms after it was logged is not seen.
+     */
+    public boolean isCurrent() {
+        Timestamp cursor = pollCursor;
+        if (!isReady() || cursor == null) {
+            return false;
+        }
+        try {
+            List<Long> logged = jdbcTemplate.queryForList("SELECT ChangeSeq FROM search_index_change WHERE ChangedAt >= ?",
+                    Long.class, new Timestamp(cursor.getTime() - changeOverlapMs));
+            return appliedChanges.containsAll(logged);
+        } catch (DataAccessException e) {
+            log.warn("Search index change log could not be read: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Application GUIDs whose ApplicationFormNumber contains the term
+     * @return The GUIDs, or null if the index cannot narrow this term down
+     */
+    public List<String> findApplications(String applicationNumber) {
+        return isReady() ? fields.applicationNumber.search(applicationNumber, maxCandidates) : null;
+    }
+
+    /**
+     * Client GUIDs matching (FirstName LIKE %firstName% OR LastName LIKE %lastName%)
+     * @return The GUIDs, or null if the index cannot narrow this filter down
+     */
+    public List<String> findIndividualClients(String firstName, String lastName) {
+        if (!isReady() || firstName == null || firstName.isEmpty() || lastName == null || lastName.isEmpty()) {
+            return null;
+        }
+        Fields current = fields;
+        List<String> byFirstName = current.firstName.search(firstName, maxCandidates);
+        List<String> byLastName = byFirstName != null ? current.lastName.search(lastName, maxCandidates) : null;
+        if (byLastName == null) {
+            return null;
+        }
+        Set<String> union = new LinkedHashSet<>(byFirstName);
+        union.addAll(byLastName);
+        return union.size() > maxCandidates ? null : new ArrayList<>(union);
+    }
+
+    /**
+     * Client GUIDs whose CompanyName contains the term
+     * @return The GUIDs, or null if the index cannot narrow this term down
+     */
+    public List<String> findCorporateClients(String companyName) {
+        return isReady() ? fields.companyName.search(companyName, maxCandidates) : null;
+    }
+
+    /**
+     * Individual clients whose names are a few typos away from, or sound like, the given ones, best match first
+     * @param maxDistance Edits allowed per name
+     * @return The matches, or null if the index is not loaded
+     */
+    public List<FuzzyNameIndex.Match> findSimilarNames(String firstName, String lastName, int maxDistance, int limit) {
+        return isReady() ? fields.names.search(firstName, lastName, maxDistance, limit) : null;
+    }
+
+    /**
+     * Upper bounds on how many keys the matching find method returns, for ordering filters by selectivity
+     * @return The estimate, or -1 if the index cannot tell
+     */
+    public int estimateApplications(String applicationNumber) {
+        return isReady() ? fields.applicationNumber.estimate(applicationNumber) : -1;
+    }
+
+    public int estimateIndividualClients(String firstName, String lastName) {
+        if (!isReady() || firstName == null || firstName.isEmpty() || lastName == null || lastName.isEmpty()) {
+            return -1;
+        }
+        Fields current = fields;
+        int byFirstName = current.firstName.estimate(firstName);
+        int byLastName = current.lastName.estimate(lastName);
+        return byFirstName < 0 || byLastName < 0 ? -1 : byFirstName + byLastName;
+    }
+
+    public int estimateCorporateClients(String companyName) {
+        return isReady() ? fields.companyName.estimate(companyName) : -1;
+    }
+
+    public void indexApplication(String applicationFormGUID, String applicationFormNumber) {
+        long change = recordChange("A", applicationFormGUID);
+        afterCommit(change, f -> f.applicationNumber.put(applicationFormGUID, applicationFormNumber));
+    }
+
+    public void indexClient(String clientGUID, String firstName, String lastName, String companyName) {
+        long change = recordChange("C", clientGUID);
+        afterCommit(change, f -> {
+            f.firstName.put(clientGUID, firstName);
+            f.lastName.put(clientGUID, lastName);
+            f.companyName.put(clientGUID, companyName);
+            f.names.put(clientGUID, firstName, lastName);
+        });
+    }
+
+    public void indexClientName(String clientGUID, String firstName, String lastName) {
+        long change = recordChange("C", clientGUID);
+        afterCommit(change, f -> {
+            f.firstName.put(clientGUID, firstName);
+            f.lastName.put(clientGUID, lastName);
+            f.names.put(clientGUID, firstName, lastName);
+        });
+    }
+
+    private boolean isPersistent() {
+        return segmentDir != null && !segmentDir.isBlank();
+    }
+
+    /**
+     * Log the change inside the caller's transaction, so it is visible to other instances exactly when the row is
+     * @return Its ChangeSeq, or 0 when the index is disabled
+     */
+    private long recordChange(String entityType, String entityGUID) {
+        if (!enabled) {
+            return 0;
+        }
+        KeyHolder key = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO search_index_change (EntityType, EntityGUID) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, entityType);
+            ps.setString(2, entityGUID);
+            return ps;
+        }, key);
+        return key.getKey().longValue();
+    }
+
+    /**
+     * Apply an index change once the surrounding transaction commits, so searches never see rolled-back rows
+     * @param changeSeq The change's entry in search_index_change, marked applied with it
+     */
+    private void afterCommit(long changeSeq, Consumer<Fields> change) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                    appliedChanges.add(changeSeq);
+                }
+            });
+        } else {
+            apply(change);
+            appliedChanges.add(changeSeq);
+        }
+    }
+
+    private synchronized void apply(Consumer<Fields> change) {
+        change.accept(fields);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    /**
+     * Map the segments named by the checkpoint file
+     * @return false if there is no usable checkpoint, or it is older than the change log retains
+     */
+    private boolean openCheckpoint() {
+        long start = System.currentTimeMillis();
+        Path dir = Paths.get(segmentDir);
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try {
+            Properties checkpoint = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                checkpoint.load(in);
+            }
+            long savedGeneration = Long.parseLong(checkpoint.getProperty("generation"));
+            Timestamp covered = new Timestamp(Long.parseLong(checkpoint.getProperty("changesThrough")));
+            if (databaseTime().getTime() - covered.getTime() > changeRetentionMs - changeOverlapMs) {
+                log.info("Search index checkpoint {} is older than the change log, rebuilding", savedGeneration);
+                return false;
+            }
+            SearchIndexField[] opened = new SearchIndexField[FIELD_NAMES.length];
+            for (int i = 0; i < opened.length; i++) {
+                opened[i] = new SearchIndexField(SearchIndexSegment.open(dir.resolve(FIELD_NAMES[i] + "-" + savedGeneration + ".seg")));
+            }
+            FuzzyNameIndex names = FuzzyNameIndex.read(dir.resolve(NAMES_FILE + "-" + savedGeneration + ".seg"));
+            Fields loaded = new Fields(names, opened);
+            synchronized (this) {
+                fields = loaded;
+                ready = true;
+            }
+            generation = savedGeneration;
+            pollCursor = covered;
+            log.info("Search index checkpoint {} opened: {} applications, {} clients in {} ms",
+                    savedGeneration, loaded.applicationNumber.size(), loaded.firstName.size(), System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            log.warn("Search index checkpoint could not be opened, rebuilding: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reload every application and client logged in search_index_change since the last poll,
+     * then drop log entries older than the retention window
+     */
+    private void pollChanges() {
+        synchronized (maintenance) {
+            try {
+                Timestamp now = databaseTime();
+                Timestamp since = new Timestamp(pollCursor.getTime() - changeOverlapMs);
+                Set<String> applications = new HashSet<>();
+                Set<String> clients = new HashSet<>();
+                Set<Long> polled = new HashSet<>();
+                long[] lastPolled = {0};
+                jdbcTemplate.query(
+                    "SELECT ChangeSeq, EntityType, EntityGUID FROM search_index_change WHERE ChangedAt >= ?",
+                    rs -> {
+                        long changeSeq = rs.getLong("ChangeSeq");
+                        polled.add(changeSeq);
+                        lastPolled[0] = Math.max(lastPolled[0], changeSeq);
+                        ("A".equals(rs.getString("EntityType")) ? applications : clients).add(rs.getString("EntityGUID"));
+                    },
+                    since
+                );
+                reloadApplications(new ArrayList<>(applications));
+                reloadClients(new ArrayList<>(clients));
+                // Keep what this poll applied, and local changes logged after it; older entries left the window
+                appliedChanges.addAll(polled);
+                appliedChanges.removeIf(changeSeq -> changeSeq <= lastPolled[0] && !polled.contains(changeSeq));
+                pollCursor = now;
+                jdbcTemplate.update("DELETE FROM search_index_change WHERE ChangedAt < ?",
+                        new Timestamp(now.getTime() - changeRetentionMs));
+                if (!applications.isEmpty() || !clients.isEmpty()) {
+                    log.debug("Search index replayed {} applications, {} clients", applications.size(), clients.size());
+                }
+            } catch (Exception e) {
+                log.warn("Search index changes could not be polled: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reloadApplications(List<String> guids) {
+        for (int from = 0; from < guids.size(); from += RELOAD_BATCH_SIZE) {
+            List<String> batch = guids.subList(from, Math.min(from + RELOAD_BATCH_SIZE, guids.size()));
+            Set<String> missing = new HashSet<>(batch);
+            jdbcTemplate.query(
+                "SELECT ApplicationFormGUID, ApplicationFormNumber FROM frapplicationform WHERE ApplicationFormGUID IN ("
+                        + placeholders(batch.size()) + ")",
+                rs -> {
+                    String guid = rs.getString("ApplicationFormGUID");
+                    String number = rs.getString("ApplicationFormNumber");
+                    missing.remove(guid);
+                    apply(f -> f.applicationNumber.put(guid, number));
+                },
+                batch.toArray()
+            );
+            missing.forEach(guid -> apply(f -> f.applicationNumber.remove(guid)));
+        }
+    }
+
+    private void reloadClients(List<String> guids) {
+        for (int from = 0; from < guids.size(); from += RELOAD_BATCH_SIZE) {
+            List<String> batch = guids.subList(from, Math.min(from + RELOAD_BATCH_SIZE, guids.size()));
+            Set<String> missing = new HashSet<>(batch);
+            jdbcTemplate.query(
+                "SELECT ClientGUID, FirstName, LastName, CompanyName FROM frclient WHERE TypeCode IN ('01', '02') AND ClientGUID IN ("
+                        + placeholders(batch.size()) + ")",
+                rs -> {
+                    String guid = rs.getString("ClientGUID");
+                    String firstName = rs.getString("FirstName");
+                    String lastName = rs.getString("LastName");
+                    String companyName = rs.getString("CompanyName");
+                    missing.remove(guid);
+                    apply(f -> {
+                        f.firstName.put(guid, firstName);
+                        f.lastName.put(guid, lastName);
+                        f.companyName.put(guid, companyName);
+                        f.names.put(guid, firstName, lastName);
+                    });
+                },
+                batch.toArray()
+            );
+            missing.forEach(guid -> apply(f -> {
+                f.firstName.remove(guid);
+                f.lastName.remove(guid);
+                f.companyName.remove(guid);
+                f.names.remove(guid);
+            }));
+        }
+    }
+
+    private void writeCheckpoint(Path dir, long next, Timestamp covered) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("generation", Long.toString(next));
+        checkpoint.setProperty("changesThrough", Long.toString(covered.getTime()));
+        Path temp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            checkpoint.store(out, "Application search index checkpoint");
+        }
+        Files.move(temp, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteOtherGenerations(Path dir, long current) {
+        String suffix = "-" + current + ".seg";
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(dir, "*.seg")) {
+            for (Path segment : segments) {
+                if (!segment.getFileName().toString().endsWith(suffix)) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Old search index segments could not be deleted: {}", e.getMessage());
+        }
+    }
+
+    private Timestamp databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(3)", Timestamp.class);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
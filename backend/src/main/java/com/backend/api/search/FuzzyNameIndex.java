@@ -0,0 +1,455 @@
+package com.backend.api.search;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant lookup of individual clients by first and last name. Each name field keeps a trie of
+ * its distinct values, walked with a bounded Levenshtein automaton, plus Double Metaphone buckets for
+ * misspellings that sound right but are too far apart to spell. Lookup cost depends on the number of
+ * distinct names within reach of the term, not on the number of clients.
+ *
+ * <pre>
+ * file      int magic, int version, int clientCount, then per client
+ *           UTF clientGUID, nullable UTF firstName, nullable UTF lastName;
+ *           then for the first and last name fields int keyCount, and per phonetic key
+ *           UTF key, int wordCount, UTF normalized names
+ * </pre>
+ *
+ * Reading a file back restores the tries from the names and the phonetic buckets as stored, so
+ * no name is re-encoded.
+ */
+public class FuzzyNameIndex {
+
+    private static final DoubleMetaphone METAPHONE = new DoubleMetaphone();
+    // Matches that only share a phonetic key rank as if they were this many edits away
+    private static final int PHONETIC_DISTANCE = 2;
+
+    private static final int MAGIC = 0x464E4931; // "FNI1"
+    private static final int VERSION = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String[]> names = new HashMap<>();
+    private final NameField firstNames = new NameField();
+    private final NameField lastNames = new NameField();
+
+    /**
+     * @param score Edit distance of the name to the query, lower is better
+     */
+    public record Match(String clientGUID, String firstName, String lastName, int score) {
+    }
+
+    public void put(String clientGUID, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(clientGUID);
+            String first = normalize(firstName);
+            String last = normalize(lastName);
+            if (first == null && last == null) {
+                return;
+            }
+            names.put(clientGUID, new String[] {firstName, lastName, first, last});
+            firstNames.add(first, clientGUID);
+            lastNames.add(last, clientGUID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String clientGUID) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(clientGUID);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clients whose names are within maxDistance edits of, or sound like, the given ones, best first.
+     * The last name drives the lookup when given; the first name then only adjusts the ranking.
+     */
+    public List<Match> search(String firstName, String lastName, int maxDistance, int limit) {
+        String first = normalize(firstName);
+        String last = normalize(lastName);
+        if (first == null && last == null) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            boolean byLast = last != null;
+            NameField driving = byLast ? lastNames : firstNames;
+            Map<String, Integer> distances = driving.similar(byLast ? last : first, maxDistance);
+
+            List<Match> matches = new ArrayList<>();
+            for (Map.Entry<String, Integer> word : distances.entrySet()) {
+                for (String clientGUID : driving.clients(word.getKey())) {
+                    String[] name = names.get(clientGUID);
+                    int score = word.getValue();
+                    if (byLast && first != null) {
+                        score += name[2] == null ? maxDistance + 1
+                                : Math.min(maxDistance + 1, distance(first, name[2], maxDistance + 1));
+                    }
+                    matches.add(new Match(clientGUID, name[0], name[1], score));
+                }
+            }
+            matches.sort(Comparator.comparingInt(Match::score)
+                    .thenComparing(match -> String.valueOf(match.lastName()))
+                    .thenComparing(match -> String.valueOf(match.firstName())));
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the index to a file, atomically replacing anything at the target path
+     */
+    public void write(Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(names.size());
+            for (Map.Entry<String, String[]> client : names.entrySet()) {
+                out.writeUTF(client.getKey());
+                writeNullable(out, client.getValue()[0]);
+                writeNullable(out, client.getValue()[1]);
+            }
+            firstNames.writePhonetic(out);
+            lastNames.writePhonetic(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static FuzzyNameIndex read(Path path) throws IOException {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a fuzzy name index: " + path);
+            }
+            int clients = in.readInt();
+            for (int i = 0; i < clients; i++) {
+                String clientGUID = in.readUTF();
+                String firstName = readNullable(in);
+                String lastName = readNullable(in);
+                String first = normalize(firstName);
+                String last = normalize(lastName);
+                index.names.put(clientGUID, new String[] {firstName, lastName, first, last});
+                index.firstNames.insert(first, clientGUID);
+                index.lastNames.insert(last, clientGUID);
+            }
+            index.firstNames.readPhonetic(in);
+            index.lastNames.readPhonetic(in);
+        }
+        return index;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private void removeLocked(String clientGUID) {
+        String[] previous = names.remove(clientGUID);
+        if (previous != null) {
+            firstNames.remove(previous[2], clientGUID);
+            lastNames.remove(previous[3], clientGUID);
+        }
+    }
+
+    private static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * Levenshtein distance, giving up with bound once it is certain to exceed it
+     */
+    static int distance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin >= bound) {
+                return bound;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], bound);
+    }
+
+    /**
+     * One name column: distinct values in a trie, clients per value, values per phonetic key
+     */
+    private static class NameField {
+        private final TrieNode root = new TrieNode();
+        private final Map<String, Set<String>> clients = new HashMap<>();
+        private final Map<String, Set<String>> phonetic = new HashMap<>();
+
+        void add(String word, String clientGUID) {
+            if (insert(word, clientGUID)) {
+                for (String key : phoneticKeys(word)) {
+                    phonetic.computeIfAbsent(key, k -> new HashSet<>()).add(word);
+                }
+            }
+        }
+
+        /**
+         * Add the client under the word, leaving the phonetic keys alone
+         * @return Whether the word is new to the field
+         */
+        boolean insert(String word, String clientGUID) {
+            if (word == null) {
+                return false;
+            }
+            Set<String> holders = clients.computeIfAbsent(word, w -> new HashSet<>());
+            boolean added = holders.isEmpty();
+            if (added) {
+                root.insert(word);
+            }
+            holders.add(clientGUID);
+            return added;
+        }
+
+        void writePhonetic(DataOutputStream out) throws IOException {
+            out.writeInt(phonetic.size());
+            for (Map.Entry<String, Set<String>> bucket : phonetic.entrySet()) {
+                out.writeUTF(bucket.getKey());
+                out.writeInt(bucket.getValue().size());
+                for (String word : bucket.getValue()) {
+                    out.writeUTF(word);
+                }
+            }
+        }
+
+        void readPhonetic(DataInputStream in) throws IOException {
+            int keys = in.readInt();
+            for (int i = 0; i < keys; i++) {
+                String key = in.readUTF();
+                int words = in.readInt();
+                Set<String> bucket = new HashSet<>(words * 2);
+                for (int j = 0; j < words; j++) {
+                    bucket.add(in.readUTF());
+                }
+                phonetic.put(key, bucket);
+            }
+        }
+
+        void remove(String word, String clientGUID) {
+            if (word == null) {
+                return;
+            }
+            Set<String> holders = clients.get(word);
+            if (holders == null || !holders.remove(clientGUID) || !holders.isEmpty()) {
+                return;
+            }
+            clients.remove(word);
+            root.delete(word);
+            for (String key : phoneticKeys(word)) {
+                Set<String> words = phonetic.get(key);
+                if (words != null) {
+                    words.remove(word);
+                    if (words.isEmpty()) {
+                        phonetic.remove(key);
+                    }
+                }
+            }
+        }
+
+        Set<String> clients(String word) {
+            return clients.getOrDefault(word, Set.of());
+        }
+
+        /**
+         * Distinct values within maxDistance edits of the term, plus those sharing a phonetic key with it
+         * @return Distance per value
+         */
+        Map<String, Integer> similar(String term, int maxDistance) {
+            Map<String, Integer> found = new HashMap<>();
+            int[] firstRow = new int[term.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = i;
+            }
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 0; i < root.size; i++) {
+                walk(root.children[i], root.keys[i], term, firstRow, maxDistance, prefix, found);
+            }
+            for (String key : phoneticKeys(term)) {
+                for (String word : phonetic.getOrDefault(key, Set.of())) {
+                    found.merge(word, Math.max(Math.min(PHONETIC_DISTANCE, maxDistance), 1), Math::min);
+                }
+            }
+            return found;
+        }
+
+        /**
+         * One step of the Levenshtein automaton: extend the DP row by a trie edge, and prune the
+         * subtree as soon as no cell of the row is within maxDistance
+         */
+        private static void walk(TrieNode node, char letter, String term, int[] previousRow, int maxDistance,
+                                 StringBuilder prefix, Map<String, Integer> found) {
+            int[] row = new int[previousRow.length];
+            row[0] = previousRow[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i < row.length; i++) {
+                int cost = term.charAt(i - 1) == letter ? 0 : 1;
+                row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), previousRow[i - 1] + cost);
+                rowMin = Math.min(rowMin, row[i]);
+            }
+            if (rowMin > maxDistance) {
+                return;
+            }
+            prefix.append(letter);
+            if (node.terminal && row[row.length - 1] <= maxDistance) {
+                found.put(prefix.toString(), row[row.length - 1]);
+            }
+            for (int i = 0; i < node.size; i++) {
+                walk(node.children[i], node.keys[i], term, row, maxDistance, prefix, found);
+            }
+            prefix.setLength(prefix.length() - 1);
+        }
+
+        private static List<String> phoneticKeys(String word) {
+            String primary = METAPHONE.doubleMetaphone(word);
+            String alternate = METAPHONE.doubleMetaphone(word, true);
+            List<String> keys = new ArrayList<>(2);
+            if (primary != null && !primary.isEmpty()) {
+                keys.add(primary);
+            }
+            if (alternate != null && !alternate.isEmpty() && !alternate.equals(primary)) {
+                keys.add(alternate);
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Trie node with its edges in small parallel arrays; names branch little below the first letters
+     */
+    private static class TrieNode {
+        char[] keys = new char[0];
+        TrieNode[] children = new TrieNode[0];
+        int size;
+        boolean terminal;
+
+        void insert(String word) {
+            TrieNode node = this;
+            for (int i = 0; i < word.length(); i++) {
+                node = node.child(word.charAt(i), true);
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * Unmark the word and prune the branches left without any word
+         */
+        boolean delete(String word) {
+            return delete(word, 0);
+        }
+
+        private boolean delete(String word, int depth) {
+            if (depth == word.length()) {
+                terminal = false;
+                return size == 0;
+            }
+            TrieNode next = child(word.charAt(depth), false);
+            if (next != null && next.delete(word, depth + 1)) {
+                removeChild(word.charAt(depth));
+            }
+            return !terminal && size == 0;
+        }
+
+        private TrieNode child(char key, boolean create) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            if (!create) {
+                return null;
+            }
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            TrieNode node = new TrieNode();
+            keys[size] = key;
+            children[size] = node;
+            size++;
+            return node;
+        }
+
+        private void removeChild(char key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == key) {
+                    size--;
+                    keys[i] = keys[size];
+                    children[i] = children[size];
+                    children[size] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
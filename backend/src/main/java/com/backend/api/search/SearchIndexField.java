@@ -0,0 +1,101 @@
+package com.backend.api.search;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One indexed column: an optional memory-mapped base segment from the last checkpoint plus an
+ * in-memory trigram index of everything changed since. Keys written after the checkpoint are
+ * shadowed in the base so a stale or deleted value there is never returned.
+ */
+public class SearchIndexField {
+
+    private final SearchIndexSegment base;
+    private final TrigramIndex recent = new TrigramIndex();
+    private final Set<String> shadowed = ConcurrentHashMap.newKeySet();
+
+    public SearchIndexField() {
+        this(null);
+    }
+
+    public SearchIndexField(SearchIndexSegment base) {
+        this.base = base;
+    }
+
+    public void put(String key, String value) {
+        if (base != null) {
+            shadowed.add(key);
+        }
+        recent.put(key, value);
+    }
+
+    public void remove(String key) {
+        if (base != null) {
+            shadowed.add(key);
+        }
+        recent.remove(key);
+    }
+
+    /**
+     * Same contract as {@link TrigramIndex#search(String, int)}, across the base segment and recent changes
+     */
+    public List<String> search(String term, int limit) {
+        List<String> changed = recent.search(term, limit);
+        if (changed == null || base == null) {
+            return changed;
+        }
+        List<String> checkpointed = base.search(term, limit - changed.size(), shadowed::contains);
+        if (checkpointed == null) {
+            return null;
+        }
+        List<String> matches = new ArrayList<>(changed.size() + checkpointed.size());
+        matches.addAll(changed);
+        matches.addAll(checkpointed);
+        return matches;
+    }
+
+    public int estimate(String term) {
+        int estimate = recent.estimate(term);
+        return base == null || estimate < 0 ? estimate : estimate + base.estimate(term);
+    }
+
+    /**
+     * Number of indexed rows. Only shadowed keys the base segment holds are subtracted, which takes a pass over
+     * its keys, so this is for logging rather than the search path.
+     */
+    public int size() {
+        if (base == null) {
+            return recent.size();
+        }
+        int replaced = shadowed.isEmpty() ? 0 : base.count(shadowed::contains);
+        return base.size() - replaced + recent.size();
+    }
+
+    /**
+     * Number of keys changed since the base segment was written
+     */
+    public int changeCount() {
+        return base == null ? recent.size() : shadowed.size();
+    }
+
+    /**
+     * Merge the base segment and recent changes into a new segment file and open it as the next base
+     */
+    public SearchIndexField checkpoint(Path target) throws IOException {
+        TrigramIndex merged = new TrigramIndex();
+        if (base != null) {
+            base.forEach((key, value) -> {
+                if (!shadowed.contains(key)) {
+                    merged.put(key, value);
+                }
+            });
+        }
+        recent.forEach(merged::put);
+        SearchIndexSegment.write(merged, target);
+        return new SearchIndexField(SearchIndexSegment.open(target));
+    }
+}
@@ -0,0 +1,323 @@
+package com.backend.api.search;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, memory-mapped trigram segment for one indexed column.
+ *
+ * <pre>
+ * header    int magic, int version, int docCount, int termCount,
+ *           long keysOffset, long valuesOffset, long termsOffset, long postingsOffset
+ * keys      int[docCount + 1] byte offsets, then UTF-8 bytes
+ * values    int[docCount + 1] byte offsets, then UTF-8 bytes (normalized, null stored as empty)
+ * terms     long[termCount] sorted trigrams, int[termCount + 1] posting byte offsets, int[termCount] posting counts
+ * postings  doc ids per term, delta-encoded as unsigned varints
+ * </pre>
+ *
+ * Opening a segment only maps the file; nothing is read until a lookup touches it.
+ */
+public class SearchIndexSegment {
+
+    private static final int MAGIC = 0x54475331; // "TGS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int docCount;
+    private final int termCount;
+    private final int keysOffset;
+    private final int valuesOffset;
+    private final int termsOffset;
+    private final int postingsOffset;
+
+    private SearchIndexSegment(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a search index segment: " + path);
+        }
+        this.docCount = buffer.getInt(8);
+        this.termCount = buffer.getInt(12);
+        this.keysOffset = (int) buffer.getLong(16);
+        this.valuesOffset = (int) buffer.getLong(24);
+        this.termsOffset = (int) buffer.getLong(32);
+        this.postingsOffset = (int) buffer.getLong(40);
+    }
+
+    public static SearchIndexSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SearchIndexSegment(path, mapped);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int size() {
+        return docCount;
+    }
+
+    /**
+     * Find the keys whose value contains the term, skipping keys a newer layer has replaced
+     * @return Matching keys, or null if the term cannot be answered or more than limit rows match
+     */
+    public List<String> search(String term, int limit, Predicate<String> shadowed) {
+        String needle = TrigramIndex.searchable(term);
+        if (needle == null) {
+            return null;
+        }
+        int gramCount = needle.length() - TrigramIndex.MIN_TERM_LENGTH + 1;
+        int[] terms = new int[gramCount];
+        int shortest = 0;
+        for (int i = 0; i < gramCount; i++) {
+            terms[i] = findTerm(TrigramIndex.pack(needle, i));
+            if (terms[i] < 0) {
+                return List.of();
+            }
+            if (postingCount(terms[i]) < postingCount(terms[shortest])) {
+                shortest = i;
+            }
+        }
+        int[] candidates = decodePostings(terms[shortest]);
+        int size = candidates.length;
+        for (int i = 0; i < gramCount && size > 0; i++) {
+            if (terms[i] == terms[shortest]) {
+                continue;
+            }
+            int[] other = decodePostings(terms[i]);
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (Arrays.binarySearch(other, candidates[j]) >= 0) {
+                    candidates[kept++] = candidates[j];
+                }
+            }
+            size = kept;
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (int j = 0; j < size; j++) {
+            int doc = candidates[j];
+            if (!readString(valuesOffset, doc).contains(needle)) {
+                continue;
+            }
+            String key = readString(keysOffset, doc);
+            if (shadowed.test(key)) {
+                continue;
+            }
+            if (matches.size() == limit) {
+                return null;
+            }
+            matches.add(key);
+        }
+        return matches;
+    }
+
+    /**
+     * Upper bound on matching rows from the shortest posting list, or -1 if the term cannot be answered
+     */
+    public int estimate(String term) {
+        String needle = TrigramIndex.searchable(term);
+        if (needle == null) {
+            return -1;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i + TrigramIndex.MIN_TERM_LENGTH <= needle.length(); i++) {
+            int index = findTerm(TrigramIndex.pack(needle, i));
+            if (index < 0) {
+                return 0;
+            }
+            best = Math.min(best, postingCount(index));
+        }
+        return best;
+    }
+
+    /**
+     * Number of keys in the segment that match, reading keys only
+     */
+    public int count(Predicate<String> keys) {
+        int count = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (keys.test(readString(keysOffset, doc))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void forEach(BiConsumer<String, String> visitor) {
+        for (int doc = 0; doc < docCount; doc++) {
+            visitor.accept(readString(keysOffset, doc), readString(valuesOffset, doc));
+        }
+    }
+
+    /**
+     * Write the index to a new segment file, atomically replacing anything at the target path
+     */
+    public static void write(TrigramIndex index, Path target) throws IOException {
+        TrigramIndex.Snapshot snapshot = index.snapshot();
+        byte[][] keys = encodeStrings(snapshot.keys());
+        byte[][] values = encodeStrings(snapshot.values());
+        byte[][] postings = new byte[snapshot.postings().length][];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = encodePostings(snapshot.postings()[i]);
+        }
+
+        long keysOffset = HEADER_SIZE;
+        long valuesOffset = keysOffset + stringTableSize(keys);
+        long termsOffset = valuesOffset + stringTableSize(values);
+        int termCount = snapshot.trigrams().length;
+        long postingsOffset = termsOffset + 8L * termCount + 4L * (termCount + 1) + 4L * termCount;
+        long postingsSize = 0;
+        for (byte[] list : postings) {
+            postingsSize += list.length;
+        }
+        if (postingsOffset + postingsSize > Integer.MAX_VALUE) {
+            throw new IOException("Search index segment would exceed 2 GB: " + target);
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(keys.length).putInt(termCount)
+                  .putLong(keysOffset).putLong(valuesOffset).putLong(termsOffset).putLong(postingsOffset);
+            out.write(header.array());
+            writeStringTable(out, keys);
+            writeStringTable(out, values);
+
+            ByteBuffer terms = ByteBuffer.allocate((int) (postingsOffset - termsOffset));
+            for (long gram : snapshot.trigrams()) {
+                terms.putLong(gram);
+            }
+            int offset = 0;
+            for (byte[] list : postings) {
+                terms.putInt(offset);
+                offset += list.length;
+            }
+            terms.putInt(offset);
+            for (int[] list : snapshot.postings()) {
+                terms.putInt(list.length);
+            }
+            out.write(terms.array());
+            for (byte[] list : postings) {
+                out.write(list);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int findTerm(long gram) {
+        int low = 0;
+        int high = termCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(termsOffset + 8 * mid);
+            if (value < gram) {
+                low = mid + 1;
+            } else if (value > gram) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int postingCount(int term) {
+        return buffer.getInt(termsOffset + 8 * termCount + 4 * (termCount + 1) + 4 * term);
+    }
+
+    private int[] decodePostings(int term) {
+        int offsetsStart = termsOffset + 8 * termCount;
+        int position = postingsOffset + buffer.getInt(offsetsStart + 4 * term);
+        int count = postingCount(term);
+        int[] docs = new int[count];
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += delta;
+            docs[i] = previous;
+        }
+        return docs;
+    }
+
+    private String readString(int tableOffset, int doc) {
+        int start = buffer.getInt(tableOffset + 4 * doc);
+        int end = buffer.getInt(tableOffset + 4 * (doc + 1));
+        byte[] bytes = new byte[end - start];
+        buffer.get(tableOffset + 4 * (docCount + 1) + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] encodeStrings(String[] strings) {
+        byte[][] encoded = new byte[strings.length][];
+        for (int i = 0; i < strings.length; i++) {
+            encoded[i] = strings[i] != null ? strings[i].getBytes(StandardCharsets.UTF_8) : new byte[0];
+        }
+        return encoded;
+    }
+
+    private static long stringTableSize(byte[][] strings) {
+        long size = 4L * (strings.length + 1);
+        for (byte[] s : strings) {
+            size += s.length;
+        }
+        return size;
+    }
+
+    private static void writeStringTable(OutputStream out, byte[][] strings) throws IOException {
+        ByteBuffer offsets = ByteBuffer.allocate(4 * (strings.length + 1));
+        int offset = 0;
+        for (byte[] s : strings) {
+            offsets.putInt(offset);
+            offset += s.length;
+        }
+        offsets.putInt(offset);
+        out.write(offsets.array());
+        for (byte[] s : strings) {
+            out.write(s);
+        }
+    }
+
+    private static byte[] encodePostings(int[] docs) {
+        byte[] out = new byte[docs.length * 5];
+        int position = 0;
+        int previous = 0;
+        for (int doc : docs) {
+            int delta = doc - previous;
+            previous = doc;
+            while ((delta & ~0x7F) != 0) {
+                out[position++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            out[position++] = (byte) delta;
+        }
+        return Arrays.copyOf(out, position);
+    }
+}
@@ -0,0 +1,342 @@
+package com.backend.api.search;
+
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.dto.SearchCursor;
+import com.backend.api.dto.SearchFacets;
+import com.backend.api.dto.SearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of search result pages, filtered totals and facet counts, weighed by an estimate of their heap size.
+ * Each page is tagged with the applications it shows and the agent it is scoped to, so a
+ * write only drops the pages it can affect. Entries also expire after a short TTL, which
+ * bounds staleness from writes made by other instances.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+
+    private static final int ENTRY_OVERHEAD = 256;
+    private static final int ROW_OVERHEAD = 96;
+    private static final int TOTAL_WEIGHT = 128;
+    private static final int BUCKET_OVERHEAD = 64;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${search.cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${search.cache.count-ttl-ms:60000}")
+    private long countTtlMs;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+    // Bumped by every invalidation; a page computed across a bump may be stale and is not stored
+    private long version;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Cache key for one page of one search
+     * @param kind Search type, e.g. "number" or "agent"
+     * @param filter The filter values, in a fixed order per kind
+     * @param agentEmail The agent the search is restricted to, or null
+     */
+    public record Key(String kind, List<String> filter, String agentEmail, int page, int size,
+                      SearchCursor cursor, boolean includeTotal) {
+
+        /**
+         * The key of the total across all pages of this search
+         */
+        public Key forTotal() {
+            return new Key(kind, filter, agentEmail, -1, 0, null, true);
+        }
+
+        /**
+         * The key of this page when only some row fields are selected
+         */
+        public Key forProjection(String projection) {
+            return new Key(kind + "[" + projection + "]", filter, agentEmail, page, size, cursor, includeTotal);
+        }
+
+        /**
+         * The key of the facet counts of this search
+         */
+        public Key forFacets() {
+            return new Key(kind, filter, agentEmail, -2, 0, null, true);
+        }
+    }
+
+    /**
+     * A search total
+     * @param exact False when served from the cache, where it may lag writes made by other instances
+     */
+    public record Total(long value, boolean exact) {
+    }
+
+    private record Entry(SearchResult result, Long total, SearchFacets facets, Set<String> applicationGUIDs,
+                         String agentClientGUID, long weight, long expiresAt) {
+    }
+
+    /**
+     * Return the cached page, or compute and cache it
+     * @param agentClientGUID Resolves the ClientGUID of the agent the search is scoped to; only called on a miss
+     */
+    public SearchResult get(Key key, Supplier<String> agentClientGUID, Supplier<SearchResult> search) {
+        if (!enabled) {
+            return search.get();
+        }
+        Entry cached = lookup(key);
+        if (cached != null) {
+            return cached.result();
+        }
+        long startVersion = version();
+
+        SearchResult result = search.get();
+        Set<String> applicationGUIDs = new HashSet<>();
+        for (ApplicationSearchRow row : result.getContent()) {
+            applicationGUIDs.add(row.applicationFormGUID());
+        }
+        store(key, new Entry(result, null, null, applicationGUIDs, scope(key, agentClientGUID), weigh(result),
+                System.currentTimeMillis() + ttlMs), startVersion);
+        return result;
+    }
+
+    /**
+     * Return the cached total, or count and cache it
+     * @param key The key of the search, see {@link Key#forTotal()}
+     */
+    public Total count(Key key, Supplier<String> agentClientGUID, Supplier<Long> count) {
+        if (!enabled) {
+            return new Total(count.get(), true);
+        }
+        Entry cached = lookup(key);
+        if (cached != null) {
+            return new Total(cached.total(), false);
+        }
+        long startVersion = version();
+
+        long total = count.get();
+        store(key, new Entry(null, total, null, Set.of(), scope(key, agentClientGUID), TOTAL_WEIGHT,
+                System.currentTimeMillis() + countTtlMs), startVersion);
+        return new Total(total, true);
+    }
+
+    /**
+     * Return the cached facet counts, or compute and cache them
+     * @param key The key of the search, see {@link Key#forFacets()}
+     */
+    public SearchFacets facets(Key key, Supplier<String> agentClientGUID, Supplier<SearchFacets> facets) {
+        if (!enabled) {
+            return facets.get();
+        }
+        Entry cached = lookup(key);
+        if (cached != null) {
+            return cached.facets();
+        }
+        long startVersion = version();
+
+        SearchFacets computed = facets.get();
+        store(key, new Entry(null, null, computed, Set.of(), scope(key, agentClientGUID), weigh(computed),
+                System.currentTimeMillis() + countTtlMs), startVersion);
+        return computed;
+    }
+
+    /**
+     * The application was created, re-ordered, moved to another plan or had its owner or agent changed:
+     * drop unscoped pages, totals and facets, those scoped to any of its agents, and any page showing it.
+     * Looks up the agents now, inside the caller's transaction, and invalidates once it commits.
+     */
+    public void applicationChanged(String applicationFormGUID) {
+        if (!enabled || applicationFormGUID == null) {
+            return;
+        }
+        Set<String> agentClientGUIDs = new HashSet<>(jdbcTemplate.queryForList("""
+            SELECT ClientGUID
+            FROM frrole
+            WHERE ApplicationFormGUID = ? AND RoleCode = '03'
+            """,
+            String.class,
+            applicationFormGUID
+        ));
+        afterCommit(() -> invalidate(entry ->
+                entry.agentClientGUID() == null
+                || agentClientGUIDs.contains(entry.agentClientGUID())
+                || entry.applicationGUIDs().contains(applicationFormGUID)));
+    }
+
+    /**
+     * Only data shown on the application's own row changed, and no search filters on it: drop the pages
+     * showing it, and facet counts, which group on row data such as the status. A change to filtered data,
+     * such as the plan, moves the application in or out of searches and needs {@link #applicationChanged}.
+     */
+    public void applicationRowChanged(String applicationFormGUID) {
+        if (!enabled || applicationFormGUID == null) {
+            return;
+        }
+        afterCommit(() -> invalidate(entry -> entry.facets() != null || entry.applicationGUIDs().contains(applicationFormGUID)));
+    }
+
+    /**
+     * A client was renamed: every application it owns or is the agent on may have moved in or out of a search
+     */
+    public void clientChanged(String clientGUID) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.queryForList("""
+            SELECT DISTINCT ApplicationFormGUID
+            FROM frrole
+            WHERE ClientGUID = ? AND RoleCode IN ('01', '03') AND ApplicationFormGUID IS NOT NULL
+            """,
+            String.class,
+            clientGUID
+        ).forEach(this::applicationChanged);
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("evictions", evictions);
+        stats.put("invalidations", invalidations);
+        stats.put("entries", entries.size());
+        stats.put("weightBytes", weight);
+        stats.put("maxBytes", maxBytes);
+        return stats;
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private synchronized Entry lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            hits++;
+            return entry;
+        }
+        if (entry != null) {
+            remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    private synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Cache the entry, unless an invalidation ran since startVersion and it may already be stale
+     */
+    private synchronized void store(Key key, Entry entry, long startVersion) {
+        if (version != startVersion || entry.weight() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            weight -= previous.weight();
+        }
+        weight += entry.weight();
+        evict();
+    }
+
+    private static String scope(Key key, Supplier<String> agentClientGUID) {
+        return key.agentEmail() != null ? agentClientGUID.get() : null;
+    }
+
+    private synchronized void invalidate(Predicate<Entry> affected) {
+        version++;
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            if (affected.test(entry)) {
+                weight -= entry.weight();
+                invalidations++;
+                it.remove();
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (weight > maxBytes && it.hasNext()) {
+            weight -= it.next().getValue().weight();
+            evictions++;
+            it.remove();
+        }
+    }
+
+    /**
+     * Rough heap size of a page: fixed overhead plus two bytes per character of every row string
+     */
+    private static long weigh(SearchResult result) {
+        long bytes = ENTRY_OVERHEAD;
+        for (ApplicationSearchRow row : result.getContent()) {
+            bytes += ROW_OVERHEAD + 2L * (length(row.applicationNumber()) + length(row.applicationFormGUID())
+                    + length(row.ownerName()) + length(row.dateOfBirth()) + length(row.companyName())
+                    + length(row.primaryAddress()) + length(row.lastModifiedDate()) + length(row.status())
+                    + length(row.ownerType()) + length(row.createdBy()));
+        }
+        return bytes;
+    }
+
+    private static long weigh(SearchFacets facets) {
+        long bytes = ENTRY_OVERHEAD;
+        for (List<SearchFacets.Bucket> buckets : List.of(facets.agents(), facets.plans(), facets.statuses(), facets.months())) {
+            for (SearchFacets.Bucket bucket : buckets) {
+                bytes += BUCKET_OVERHEAD + 2L * (length(bucket.value()) + length(bucket.label()));
+            }
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.backend.api.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Cheap per-field statistics on frapplicationform for ordering search predicates by selectivity:
+ * the row count, the number of applications per plan, and a per-day histogram of LastModifiedDate.
+ * Rebuilt periodically with two GROUP BY scans; between refreshes the numbers are estimates.
+ */
+@Component
+@Slf4j
+public class SearchStatistics {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.stats.enabled:true}")
+    private boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(long applications, Map<String, Long> plans, NavigableMap<LocalDate, Long> days) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.stats.refresh-interval-ms:600000}",
+               fixedDelayString = "${search.stats.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Map<String, Long> plans = new HashMap<>();
+            long[] applications = new long[1];
+            jdbcTemplate.query("SELECT PlanGUID, COUNT(*) AS total FROM frapplicationform GROUP BY PlanGUID", rs -> {
+                long total = rs.getLong("total");
+                applications[0] += total;
+                if (rs.getString("PlanGUID") != null) {
+                    plans.put(rs.getString("PlanGUID"), total);
+                }
+            });
+            NavigableMap<LocalDate, Long> days = new TreeMap<>();
+            jdbcTemplate.query("""
+                SELECT DATE(LastModifiedDate) AS day, COUNT(*) AS total
+                FROM frapplicationform
+                WHERE LastModifiedDate IS NOT NULL
+                GROUP BY DATE(LastModifiedDate)
+                """, rs -> {
+                Date day = rs.getDate("day");
+                days.put(day.toLocalDate(), rs.getLong("total"));
+            });
+            snapshot = new Snapshot(applications[0], plans, days);
+            log.info("Search statistics refreshed in {} ms: {} applications, {} plans, {} days",
+                    System.currentTimeMillis() - start, applications[0], plans.size(), days.size());
+        } catch (Exception e) {
+            log.warn("Search statistics could not be refreshed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The number of applications, or -1 before the first refresh
+     */
+    public long applications() {
+        Snapshot current = snapshot;
+        return current != null ? current.applications() : -1;
+    }
+
+    /**
+     * @return The number of applications on the plan, or -1 before the first refresh
+     */
+    public long estimatePlan(String planGUID) {
+        Snapshot current = snapshot;
+        return current != null ? current.plans().getOrDefault(planGUID, 0L) : -1;
+    }
+
+    /**
+     * Applications last modified between the two days, inclusive; either bound may be null
+     * @return The estimate, or -1 before the first refresh
+     */
+    public long estimateModified(LocalDate from, LocalDate to) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return -1;
+        }
+        NavigableMap<LocalDate, Long> range = current.days();
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        long total = 0;
+        for (long count : range.values()) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,383 @@
+package com.backend.api.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Trigram index over a single text column. Rows are identified by a string key (a GUID)
+ * and assigned dense int ids; every trigram maps to a sorted int[] posting list of those ids.
+ * A lookup answers the same question as SQL {@code column LIKE '%term%'}.
+ */
+public class TrigramIndex {
+
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private static final long USED = 1L << 48;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private String[] keys = new String[256];
+    private String[] values = new String[256];
+    private int docCount;
+    private int liveDocs;
+
+    // Open-addressing table: packed trigram -> posting list of doc ids
+    private long[] trigrams = new long[1024];
+    private int[][] postings = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int trigramCount;
+
+    /**
+     * Index or re-index the value stored under a key
+     * @param key The row key
+     * @param rawValue The column value, may be null
+     */
+    public void put(String key, String rawValue) {
+        String value = normalize(rawValue);
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIds.get(key);
+            int id;
+            if (existing != null) {
+                id = existing;
+                String previous = values[id];
+                if (previous == null ? value == null : previous.equals(value)) {
+                    return;
+                }
+                removeTrigrams(id, previous);
+            } else {
+                id = docCount++;
+                ensureDocCapacity(docCount);
+                docIds.put(key, id);
+                keys[id] = key;
+                liveDocs++;
+            }
+            values[id] = value;
+            addTrigrams(id, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer id = docIds.remove(key);
+            if (id == null) {
+                return;
+            }
+            removeTrigrams(id, values[id]);
+            values[id] = null;
+            keys[id] = null;
+            liveDocs--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the keys whose value contains the term, like SQL LIKE '%term%'
+     * @param term The search term
+     * @param limit Maximum number of keys worth returning
+     * @return Matching keys, or null if the index cannot answer (term too short or contains
+     *         LIKE wildcards) or more than limit rows match
+     */
+    public List<String> search(String term, int limit) {
+        String needle = searchable(term);
+        if (needle == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            int[] candidates = intersect(needle);
+            if (candidates == null) {
+                return List.of();
+            }
+            List<String> matches = new ArrayList<>();
+            for (int id : candidates) {
+                String value = values[id];
+                if (value != null && value.contains(needle)) {
+                    if (matches.size() == limit) {
+                        return null;
+                    }
+                    matches.add(keys[id]);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Upper bound on the number of rows matching the term, from the shortest posting list
+     * @return The estimate, or -1 if the index cannot answer for this term
+     */
+    public int estimate(String term) {
+        String needle = searchable(term);
+        if (needle == null) {
+            return -1;
+        }
+        lock.readLock().lock();
+        try {
+            int best = Integer.MAX_VALUE;
+            for (int i = 0; i + MIN_TERM_LENGTH <= needle.length(); i++) {
+                int slot = findSlot(pack(needle, i));
+                if (trigrams[slot] == 0) {
+                    return 0;
+                }
+                best = Math.min(best, postingSizes[slot]);
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visit every live key with its normalized value
+     */
+    public void forEach(BiConsumer<String, String> visitor) {
+        lock.readLock().lock();
+        try {
+            for (int id = 0; id < docCount; id++) {
+                if (keys[id] != null) {
+                    visitor.accept(keys[id], values[id]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Live documents and sorted posting lists, renumbered densely, for writing a segment
+     */
+    Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            int[] remap = new int[docCount];
+            String[] liveKeys = new String[liveDocs];
+            String[] liveValues = new String[liveDocs];
+            int next = 0;
+            for (int id = 0; id < docCount; id++) {
+                if (keys[id] != null) {
+                    remap[id] = next;
+                    liveKeys[next] = keys[id];
+                    liveValues[next] = values[id];
+                    next++;
+                }
+            }
+            long[] grams = new long[trigramCount];
+            int n = 0;
+            for (long gram : trigrams) {
+                if (gram != 0) {
+                    grams[n++] = gram;
+                }
+            }
+            Arrays.sort(grams);
+            int[][] lists = new int[grams.length][];
+            for (int i = 0; i < grams.length; i++) {
+                int slot = findSlot(grams[i]);
+                int[] list = Arrays.copyOf(postings[slot], postingSizes[slot]);
+                for (int j = 0; j < list.length; j++) {
+                    list[j] = remap[list[j]];
+                }
+                lists[i] = list;
+            }
+            return new Snapshot(liveKeys, liveValues, grams, lists);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    record Snapshot(String[] keys, String[] values, long[] trigrams, int[][] postings) {
+    }
+
+    /**
+     * Lower-case and strip accents so matching follows the case- and accent-insensitive
+     * utf8mb4_unicode_ci collation the tables use.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        boolean ascii = true;
+        for (int i = 0; i < value.length() && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (ascii) {
+            return value.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(Character.toLowerCase(c));
+            }
+        }
+        return folded.toString();
+    }
+
+    static String searchable(String term) {
+        if (term == null || term.indexOf('%') >= 0 || term.indexOf('_') >= 0 || term.indexOf('\\') >= 0) {
+            return null;
+        }
+        String needle = normalize(term);
+        return needle.length() < MIN_TERM_LENGTH ? null : needle;
+    }
+
+    /**
+     * Intersect the posting lists of every trigram in the needle, shortest first
+     * @return Candidate doc ids, or null if some trigram has no postings at all
+     */
+    private int[] intersect(String needle) {
+        int gramCount = needle.length() - MIN_TERM_LENGTH + 1;
+        int[] slots = new int[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            int slot = findSlot(pack(needle, i));
+            if (trigrams[slot] == 0) {
+                return null;
+            }
+            slots[i] = slot;
+        }
+        int shortest = 0;
+        for (int i = 1; i < gramCount; i++) {
+            if (postingSizes[slots[i]] < postingSizes[slots[shortest]]) {
+                shortest = i;
+            }
+        }
+        int size = postingSizes[slots[shortest]];
+        int[] result = Arrays.copyOf(postings[slots[shortest]], size);
+        for (int i = 0; i < gramCount && size > 0; i++) {
+            if (i == shortest || slots[i] == slots[shortest]) {
+                continue;
+            }
+            int[] list = postings[slots[i]];
+            int listSize = postingSizes[slots[i]];
+            int kept = 0;
+            for (int j = 0; j < size; j++) {
+                if (Arrays.binarySearch(list, 0, listSize, result[j]) >= 0) {
+                    result[kept++] = result[j];
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private void addTrigrams(int id, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + MIN_TERM_LENGTH <= value.length(); i++) {
+            long gram = pack(value, i);
+            int slot = findSlot(gram);
+            if (trigrams[slot] == 0) {
+                trigrams[slot] = gram;
+                postings[slot] = new int[4];
+                trigramCount++;
+            }
+            addPosting(slot, id);
+            if (trigramCount * 2 > trigrams.length) {
+                rehash();
+            }
+        }
+    }
+
+    private void removeTrigrams(int id, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i + MIN_TERM_LENGTH <= value.length(); i++) {
+            int slot = findSlot(pack(value, i));
+            if (trigrams[slot] == 0) {
+                continue;
+            }
+            int size = postingSizes[slot];
+            int at = Arrays.binarySearch(postings[slot], 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(postings[slot], at + 1, postings[slot], at, size - at - 1);
+                postingSizes[slot] = size - 1;
+            }
+        }
+    }
+
+    private void addPosting(int slot, int id) {
+        int[] list = postings[slot];
+        int size = postingSizes[slot];
+        // New documents get the highest id, so the common case is a plain append
+        int at = size > 0 && list[size - 1] >= id ? Arrays.binarySearch(list, 0, size, id) : -(size + 1);
+        if (at >= 0) {
+            return;
+        }
+        int insert = -(at + 1);
+        if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+            postings[slot] = list;
+        }
+        System.arraycopy(list, insert, list, insert + 1, size - insert);
+        list[insert] = id;
+        postingSizes[slot] = size + 1;
+    }
+
+    private int findSlot(long gram) {
+        int mask = trigrams.length - 1;
+        int slot = (int) (mix(gram) & mask);
+        while (trigrams[slot] != 0 && trigrams[slot] != gram) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldTrigrams = trigrams;
+        int[][] oldPostings = postings;
+        int[] oldSizes = postingSizes;
+        trigrams = new long[oldTrigrams.length * 2];
+        postings = new int[trigrams.length][];
+        postingSizes = new int[trigrams.length];
+        for (int i = 0; i < oldTrigrams.length; i++) {
+            if (oldTrigrams[i] != 0) {
+                int slot = findSlot(oldTrigrams[i]);
+                trigrams[slot] = oldTrigrams[i];
+                postings[slot] = oldPostings[i];
+                postingSizes[slot] = oldSizes[i];
+            }
+        }
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int grown = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, grown);
+            values = Arrays.copyOf(values, grown);
+        }
+    }
+
+    static long pack(String value, int offset) {
+        return USED | ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    private static long mix(long gram) {
+        long h = gram * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
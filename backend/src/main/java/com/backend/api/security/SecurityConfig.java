@@ -1,5 +1,6 @@
 package com.backend.api.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,6 +11,11 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -44,12 +50,21 @@ public class SecurityConfig {
         "/api/medical/save/{applicationNumber}"
     };
 
+    private static final String[] STREAMING_URLS = {
+        "/api/search/application",
+        "/api/search/application/my",
+        "/api/search/application/export"
+    };
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Completion of a streamed response (e.g. reactive search) re-dispatches the
+                // request, which was already authorized and carries no JWT context any more
+                .requestMatchers(streamingDispatch()).permitAll()
                 .requestMatchers(PUBLIC_URLS)
                 .permitAll()
                 .anyRequest().authenticated()
@@ -63,6 +78,15 @@ public class SecurityConfig {
         return http.build();
     }
 
+    private static RequestMatcher streamingDispatch() {
+        return new AndRequestMatcher(
+            new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+            new OrRequestMatcher(Arrays.stream(STREAMING_URLS)
+                .<RequestMatcher>map(AntPathRequestMatcher::antMatcher)
+                .toList())
+        );
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,159 @@
+package com.backend.api.service;
+
+import com.backend.api.entity.User;
+import com.backend.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Links each user to the frclient row (TypeCode '03') that stands for them as the agent on
+ * applications, through users.agentClientGUID. Agent-scoped searches and counters filter frrole
+ * on that ClientGUID instead of matching the user's name, so agents who share a name stay apart.
+ * Links are cached by email; a link never changes once made, so only email changes evict.
+ */
+@Service
+@Slf4j
+public class AgentIdentityService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<String, String> clientGUIDs = new ConcurrentHashMap<>();
+
+    /**
+     * Link users created before users.agentClientGUID existed to the agent client they were
+     * matched to by name, as long as no other user has claimed that client
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void linkExistingAgents() {
+        try {
+            int linked = 0;
+            for (User user : userRepository.findAll()) {
+                if (user.getAgentClientGUID() == null) {
+                    String clientGUID = findUnlinkedClient(user);
+                    if (clientGUID != null && clientGUID.equals(link(user, clientGUID))) {
+                        linked++;
+                    }
+                }
+            }
+            if (linked > 0) {
+                log.info("Linked {} users to their existing agent clients", linked);
+            }
+        } catch (Exception e) {
+            log.warn("Users could not be linked to agent clients: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The agent ClientGUID of the user, or null if there is no such user or they have not written an application yet
+     */
+    public String findClientGUID(String email) {
+        if (email == null || email.isEmpty()) {
+            return null;
+        }
+        String cached = clientGUIDs.get(email);
+        if (cached != null) {
+            return cached;
+        }
+        String clientGUID = userRepository.findByEmail(email).map(User::getAgentClientGUID).orElse(null);
+        if (clientGUID != null) {
+            clientGUIDs.put(email, clientGUID);
+        }
+        return clientGUID;
+    }
+
+    /**
+     * Get the user's agent client, creating and linking one on their first application. Concurrent
+     * first applications of the same user all end up with the client that was linked first.
+     * @return The client GUID
+     */
+    public String getOrCreateClientGUID(User user) {
+        if (user.getAgentClientGUID() != null) {
+            return user.getAgentClientGUID();
+        }
+        String clientGUID = findUnlinkedClient(user);
+        boolean created = clientGUID == null;
+        if (created) {
+            clientGUID = UUID.randomUUID().toString();
+            jdbcTemplate.update("""
+                INSERT INTO frclient (
+                    ClientGUID, TypeCode, FirstName, LastName
+                ) VALUES (?, ?, ?, ?)
+                """,
+                clientGUID, "03", firstName(user), lastName(user)
+            );
+            log.info("Created new client record for agent with GUID: {}", clientGUID);
+        }
+        String linked = link(user, clientGUID);
+        if (created && !clientGUID.equals(linked)) {
+            jdbcTemplate.update("DELETE FROM frclient WHERE ClientGUID = ?", clientGUID);
+        }
+        return linked;
+    }
+
+    /**
+     * Forget the cached link of an email that was changed or deleted
+     */
+    public void evict(String email) {
+        if (email != null) {
+            clientGUIDs.remove(email);
+        }
+    }
+
+    private String findUnlinkedClient(User user) {
+        List<String> matches = jdbcTemplate.queryForList("""
+            SELECT c.ClientGUID
+            FROM frclient c
+            WHERE c.TypeCode = '03' AND c.FirstName = ? AND c.LastName = ?
+            AND NOT EXISTS (SELECT 1 FROM users u WHERE u.agentClientGUID = c.ClientGUID)
+            ORDER BY c.ClientGUID
+            LIMIT 1
+            """,
+            String.class,
+            firstName(user),
+            lastName(user)
+        );
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
+    /**
+     * Link the user to the client unless they are linked already. The conditional update waits for
+     * any other transaction linking the same user, and the locking read then sees what it committed.
+     * @return The client the user is linked to
+     */
+    private String link(User user, String clientGUID) {
+        int updated = jdbcTemplate.update(
+            "UPDATE users SET agentClientGUID = ? WHERE id = ? AND agentClientGUID IS NULL", clientGUID, user.getId());
+        String linked = clientGUID;
+        if (updated == 0) {
+            linked = jdbcTemplate.queryForObject(
+                "SELECT agentClientGUID FROM users WHERE id = ? FOR UPDATE", String.class, user.getId());
+        } else {
+            log.info("User {} linked to agent client {}", user.getId(), clientGUID);
+        }
+        // Not cached here: the writer's transaction may still roll the link back
+        user.setAgentClientGUID(linked);
+        return linked;
+    }
+
+    // Agent clients are named after the user, split as "FirstName LastName"
+    private static String firstName(User user) {
+        return user.getName().split(" ")[0];
+    }
+
+    private static String lastName(User user) {
+        return user.getName().contains(" ") ? user.getName().substring(user.getName().indexOf(" ") + 1) : "";
+    }
+}
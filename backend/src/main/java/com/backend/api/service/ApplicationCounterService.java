@@ -0,0 +1,187 @@
+package com.backend.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains application_count, the unfiltered and per-agent totals behind countAllApplications and
+ * countApplicationsByAgent. A counter is materialized from a full count the first time it is read;
+ * after that writers keep it current by adding the difference between what an application counted
+ * for before and after their change, inside their own transaction.
+ */
+@Service
+@Slf4j
+public class ApplicationCounterService {
+
+    private static final String ALL_SCOPE = "*";
+    private static final String AGENT_SCOPE = "agent:";
+    // Holds the version the counters were counted at rather than a total
+    private static final String VERSION_SCOPE = "version";
+
+    // Bump when the counted queries change, so counters kept by an older release are recounted
+    private static final long COUNT_VERSION = 1;
+
+    private static final String ALL_COUNT = """
+        SELECT COUNT(*)
+        FROM frapplicationform af
+        JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
+        WHERE r.RoleCode = '01'
+        """;
+
+    private static final String AGENT_COUNT = """
+        SELECT COUNT(*)
+        FROM frapplicationform af
+        JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
+        WHERE agentR.ClientGUID = ?
+        """;
+
+    private static final String AGENT_CONTRIBUTION = """
+        SELECT agentR.ClientGUID, COUNT(*) AS total
+        FROM frapplicationform af
+        JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
+        WHERE af.ApplicationFormGUID = ?
+        GROUP BY agentR.ClientGUID
+        """;
+
+    private static final String SUMMARY_ALL_COUNT = """
+        SELECT COUNT(*) FROM application_summary s WHERE 1 = 1
+        """;
+
+    private static final String SUMMARY_AGENT_COUNT = """
+        SELECT COUNT(*) FROM application_summary s WHERE s.AgentClientGUID = ?
+        """;
+
+    private static final String SUMMARY_AGENT_CONTRIBUTION = """
+        SELECT s.AgentClientGUID, COUNT(*) AS total
+        FROM application_summary s
+        WHERE s.ApplicationFormGUID = ? AND s.AgentClientGUID IS NOT NULL
+        GROUP BY s.AgentClientGUID
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationSummaryService applicationSummary;
+
+    @Value("${search.count.counters-enabled:true}")
+    private boolean enabled;
+
+    /**
+     * What one application adds to each counter
+     * @param agents Count per agent scope key
+     */
+    public record Contribution(long all, Map<String, Long> agents) {
+        static final Contribution NONE = new Contribution(0, Map.of());
+    }
+
+    /**
+     * Counters are only dropped, to be recounted on first use, when they were counted differently from how
+     * this instance counts: by an older COUNT_VERSION, or with search.summary.enabled toggled. A plain restart
+     * keeps them, since every writer keeps them current.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reset() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long version = COUNT_VERSION * 2 + (applicationSummary.isEnabled() ? 1 : 0);
+            List<Long> stored = jdbcTemplate.queryForList(
+                "SELECT Total FROM application_count WHERE ScopeKey = ?", Long.class, VERSION_SCOPE);
+            if (stored.size() == 1 && stored.get(0) == version) {
+                return;
+            }
+            jdbcTemplate.update("DELETE FROM application_count");
+            jdbcTemplate.update("INSERT IGNORE INTO application_count (ScopeKey, Total) VALUES (?, ?)", VERSION_SCOPE, version);
+            log.info("Application counters reset for counter version {}", version);
+        } catch (Exception e) {
+            log.warn("Application counters could not be reset: {}", e.getMessage());
+        }
+    }
+
+    public long countAll() {
+        String sql = applicationSummary.isEnabled() ? SUMMARY_ALL_COUNT : ALL_COUNT;
+        return count(ALL_SCOPE, sql);
+    }
+
+    public long countAgent(String agentClientGUID) {
+        String sql = applicationSummary.isEnabled() ? SUMMARY_AGENT_COUNT : AGENT_COUNT;
+        return count(agentScope(agentClientGUID), sql, agentClientGUID);
+    }
+
+    /**
+     * Snapshot what the application currently counts for; pass it to {@link #applyChange} once the write is done
+     * @param applicationFormGUID The application form GUID, or null for an application not created yet
+     */
+    public Contribution contribution(String applicationFormGUID) {
+        if (!enabled || applicationFormGUID == null) {
+            return Contribution.NONE;
+        }
+        boolean summary = applicationSummary.isEnabled();
+        long all = jdbcTemplate.queryForObject(
+            (summary ? SUMMARY_ALL_COUNT : ALL_COUNT) + (summary ? "AND s" : "AND af") + ".ApplicationFormGUID = ?\n",
+            Long.class,
+            applicationFormGUID
+        );
+        Map<String, Long> agents = new HashMap<>();
+        jdbcTemplate.query(summary ? SUMMARY_AGENT_CONTRIBUTION : AGENT_CONTRIBUTION, rs -> {
+            agents.merge(agentScope(rs.getString(1)), rs.getLong("total"), Long::sum);
+        }, applicationFormGUID);
+        return new Contribution(all, agents);
+    }
+
+    /**
+     * Add the difference between the application's contribution now and the snapshot taken before the write.
+     * Counters that have not been materialized yet are left alone; they will be counted in full when first read.
+     */
+    public void applyChange(String applicationFormGUID, Contribution before) {
+        if (!enabled || applicationFormGUID == null) {
+            return;
+        }
+        Contribution after = contribution(applicationFormGUID);
+        add(ALL_SCOPE, after.all() - before.all());
+        Map<String, Long> deltas = new HashMap<>(after.agents());
+        before.agents().forEach((scope, total) -> deltas.merge(scope, -total, Long::sum));
+        deltas.forEach(this::add);
+    }
+
+    private long count(String scope, String sql, Object... params) {
+        if (!enabled) {
+            return jdbcTemplate.queryForObject(sql, Long.class, params);
+        }
+        List<Long> totals = jdbcTemplate.queryForList(
+            "SELECT Total FROM application_count WHERE ScopeKey = ?", Long.class, scope);
+        if (!totals.isEmpty()) {
+            return totals.get(0);
+        }
+        // INSERT ... SELECT locks the rows it counts, so it cannot interleave with a writer's delta
+        Object[] args = new Object[params.length + 1];
+        args[0] = scope;
+        System.arraycopy(params, 0, args, 1, params.length);
+        jdbcTemplate.update("INSERT IGNORE INTO application_count (ScopeKey, Total)\n"
+                + sql.replaceFirst("SELECT COUNT\\(\\*\\)", "SELECT ?, COUNT(*)"), args);
+        log.info("Application counter {} materialized", scope);
+        return jdbcTemplate.queryForObject(
+            "SELECT Total FROM application_count WHERE ScopeKey = ?", Long.class, scope);
+    }
+
+    private void add(String scope, long delta) {
+        if (delta != 0) {
+            jdbcTemplate.update("UPDATE application_count SET Total = Total + ? WHERE ScopeKey = ?", delta, scope);
+        }
+    }
+
+    private static String agentScope(String agentClientGUID) {
+        return AGENT_SCOPE + agentClientGUID;
+    }
+}
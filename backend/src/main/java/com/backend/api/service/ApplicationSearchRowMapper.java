@@ -0,0 +1,129 @@
+package com.backend.api.service;
+
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.service.SearchQueryBuilder.Column;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Maps the column aliases shared by every application search query
+ * (applicationNumber, applicationFormGUID, firstName, lastName, companyName, dateOfBirth,
+ * primaryAddress, lastModifiedDate, status, ownerType, createdBy) to an {@link ApplicationSearchRow}.
+ * A query that selects only some of the columns maps to rows with the other fields null.
+ */
+public class ApplicationSearchRowMapper implements RowMapper<ApplicationSearchRow> {
+
+    public static final ApplicationSearchRowMapper INSTANCE = new ApplicationSearchRowMapper(EnumSet.allOf(Column.class));
+
+    private final Set<Column> columns;
+
+    private ApplicationSearchRowMapper(Set<Column> columns) {
+        this.columns = columns;
+    }
+
+    public static ApplicationSearchRowMapper forColumns(Set<Column> columns) {
+        return columns.containsAll(INSTANCE.columns) ? INSTANCE : new ApplicationSearchRowMapper(columns);
+    }
+
+    /**
+     * Column values of one result row by alias, so that JDBC and R2DBC rows map through the same code
+     * @param <E> What reading a column may throw
+     */
+    interface Columns<E extends Exception> {
+
+        String string(String alias) throws E;
+
+        LocalDate date(String alias) throws E;
+
+        Timestamp timestamp(String alias) throws E;
+    }
+
+    private record JdbcColumns(ResultSet rs) implements Columns<SQLException> {
+
+        @Override
+        public String string(String alias) throws SQLException {
+            return rs.getString(alias);
+        }
+
+        @Override
+        public LocalDate date(String alias) throws SQLException {
+            Date date = rs.getDate(alias);
+            return date != null ? date.toLocalDate() : null;
+        }
+
+        @Override
+        public Timestamp timestamp(String alias) throws SQLException {
+            return rs.getTimestamp(alias);
+        }
+    }
+
+    @Override
+    public ApplicationSearchRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return map(new JdbcColumns(rs));
+    }
+
+    /**
+     * Map one row, reading only the selected columns
+     */
+    <E extends Exception> ApplicationSearchRow map(Columns<E> row) throws E {
+        String ownerType = string(row, Column.OWNER_TYPE);
+        if (ownerType == null) {
+            ownerType = "01";
+        }
+
+        String ownerName = null;
+        String dateOfBirth = null;
+        String companyName = null;
+        if (ownerType.equals("01")) { // Individual
+            if (columns.contains(Column.FIRST_NAME)) {
+                ownerName = row.string("firstName") + " " + row.string("lastName");
+            }
+            LocalDate birthDate = columns.contains(Column.DATE_OF_BIRTH) ? row.date("dateOfBirth") : null;
+            dateOfBirth = birthDate != null ? birthDate.toString() : null;
+        } else {
+            companyName = string(row, Column.COMPANY_NAME);
+        }
+
+        Timestamp lastModified = row.timestamp("lastModifiedDate");
+        String lastModifiedDate = lastModified != null ? lastModified.toLocalDateTime().toLocalDate().toString() : null;
+
+        return new ApplicationSearchRow(
+            string(row, Column.APPLICATION_NUMBER),
+            row.string("applicationFormGUID"),
+            ownerName,
+            dateOfBirth,
+            companyName,
+            string(row, Column.PRIMARY_ADDRESS),
+            lastModifiedDate,
+            lastModified,
+            columns.contains(Column.STATUS) ? mapStatusCode(row.string("status")) : null,
+            ownerType,
+            string(row, Column.CREATED_BY)
+        );
+    }
+
+    private <E extends Exception> String string(Columns<E> row, Column column) throws E {
+        return columns.contains(column) ? row.string(column.alias) : null;
+    }
+
+    static String mapStatusCode(String statusCode) {
+        if (statusCode == null) {
+            return "Unknown";
+        }
+        return switch (statusCode) {
+            case "01" -> "In Progress";
+            case "02" -> "Submitted";
+            case "03" -> "In Review";
+            case "04" -> "Approved";
+            case "05" -> "Declined";
+            default -> "Unknown";
+        };
+    }
+}
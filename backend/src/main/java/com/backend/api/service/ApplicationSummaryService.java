@@ -0,0 +1,135 @@
+package com.backend.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Maintains application_summary, the one-row-per-application read model application search
+ * queries instead of joining roles, clients and addresses at read time. Writers call refresh
+ * inside their own transaction, so the summary commits or rolls back together with the change.
+ */
+@Service
+@Slf4j
+public class ApplicationSummaryService {
+
+    // The owner, agent and address are the first matching row by GUID, so the projection is deterministic
+    private static final String PROJECTION = """
+        INSERT INTO application_summary (
+            ApplicationFormGUID, ApplicationFormNumber, PlanGUID, LastModifiedDate, StatusCode,
+            OwnerClientGUID, OwnerTypeCode, OwnerFirstName, OwnerLastName, OwnerCompanyName, OwnerDateOfBirth,
+            PrimaryAddress, AgentClientGUID, AgentFirstName, AgentLastName, CreatedBy, BaseFaceAmount
+        )
+        SELECT
+            af.ApplicationFormGUID,
+            af.ApplicationFormNumber,
+            af.PlanGUID,
+            af.LastModifiedDate,
+            r.StatusCode,
+            c.ClientGUID,
+            c.TypeCode,
+            c.FirstName,
+            c.LastName,
+            c.CompanyName,
+            c.DateOfBirth,
+            CONCAT(COALESCE(ad.AddressLine1, ''),
+                  CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
+                  CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
+                  CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END),
+            agentC.ClientGUID,
+            agentC.FirstName,
+            agentC.LastName,
+            CONCAT(agentC.FirstName, ' ', agentC.LastName),
+            (SELECT MAX(cd.DecimalValue)
+             FROM frcoverage cv
+             JOIN frcoveragedefinition def ON cv.CoverageDefinitionGUID = def.CoverageDefinitionGUID AND def.CoverageName = 'Base coverage'
+             JOIN frcoveragedetails cd ON cv.CoverageGUID = cd.CoverageGUID AND cd.FieldName = 'FaceAmount'
+             WHERE cv.ApplicationFormGUID = af.ApplicationFormGUID)
+        FROM frapplicationform af
+        JOIN frrole r ON r.RoleGUID = (
+            SELECT MIN(r1.RoleGUID) FROM frrole r1 WHERE r1.ApplicationFormGUID = af.ApplicationFormGUID AND r1.RoleCode = '01')
+        JOIN frclient c ON r.ClientGUID = c.ClientGUID
+        LEFT JOIN fraddress a ON a.AddressGUID = (
+            SELECT MIN(a1.AddressGUID) FROM fraddress a1 WHERE a1.ClientGUID = c.ClientGUID AND a1.TypeCode = '01')
+        LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
+        LEFT JOIN frrole agentR ON agentR.RoleGUID = (
+            SELECT MIN(r3.RoleGUID) FROM frrole r3 WHERE r3.ApplicationFormGUID = af.ApplicationFormGUID AND r3.RoleCode = '03')
+        LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
+        """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${search.summary.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Project applications that have no summary row yet, e.g. ones written before the summary was enabled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int rows = jdbcTemplate.update(PROJECTION + """
+                WHERE NOT EXISTS (SELECT 1 FROM application_summary s WHERE s.ApplicationFormGUID = af.ApplicationFormGUID)
+                """);
+            log.info("Application summary backfilled {} rows", rows);
+        } catch (Exception e) {
+            log.warn("Application summary could not be backfilled: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-project one application from the fr* tables
+     * @param applicationFormGUID The application form GUID
+     */
+    public void refresh(String applicationFormGUID) {
+        if (!enabled || applicationFormGUID == null) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM application_summary WHERE ApplicationFormGUID = ?", applicationFormGUID);
+        jdbcTemplate.update(PROJECTION + "WHERE af.ApplicationFormGUID = ?\n", applicationFormGUID);
+    }
+
+    public void refreshByNumber(String applicationFormNumber) {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.queryForList(
+            "SELECT ApplicationFormGUID FROM frapplicationform WHERE ApplicationFormNumber = ?",
+            String.class,
+            applicationFormNumber
+        ).forEach(this::refresh);
+    }
+
+    /**
+     * Re-project every application the client is the owner or agent of
+     * @param clientGUID The client GUID
+     */
+    public void refreshForClient(String clientGUID) {
+        if (!enabled) {
+            return;
+        }
+        List<String> applicationFormGUIDs = jdbcTemplate.queryForList("""
+            SELECT DISTINCT ApplicationFormGUID
+            FROM frrole
+            WHERE ClientGUID = ? AND RoleCode IN ('01', '03') AND ApplicationFormGUID IS NOT NULL
+            """,
+            String.class,
+            clientGUID
+        );
+        applicationFormGUIDs.forEach(this::refresh);
+    }
+}
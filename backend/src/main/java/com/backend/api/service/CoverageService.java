@@ -1,5 +1,6 @@
 package com.backend.api.service;
 
+import com.backend.api.search.SearchResultCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -20,6 +21,12 @@ public class CoverageService {
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationSummaryService applicationSummary;
+    
+    @Autowired
+    private SearchResultCache resultCache;
 
     @Transactional
     public Map<String, Object> saveBaseCoverage(Map<String, Object> baseCoverageData, String applicationNumber) {
@@ -51,6 +58,8 @@ public class CoverageService {
         Map<String, String> insuredRolesMap = handleInsureds(baseCoverageData, applicationFormGUID, coverageGUID);
         
         saveCoverageDetails(baseCoverageData, coverageGUID);
+        applicationSummary.refresh(applicationFormGUID);
+        resultCache.applicationRowChanged(applicationFormGUID);
         
         result.put("coverageGUID", coverageGUID);
         result.put("coverageDefinitionGUID", coverageDefinitionGUID);
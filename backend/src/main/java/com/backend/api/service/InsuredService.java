@@ -1,6 +1,8 @@
 package com.backend.api.service;
 
 import com.backend.api.dto.InsuredSaveRequest;
+import com.backend.api.search.ApplicationSearchIndex;
+import com.backend.api.search.SearchResultCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -18,6 +20,15 @@ public class InsuredService {
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationSearchIndex searchIndex;
+    
+    @Autowired
+    private ApplicationSummaryService applicationSummary;
+    
+    @Autowired
+    private SearchResultCache resultCache;
 
     public Map<String, String> saveInsured(InsuredSaveRequest request) {
         String clientGUID = UUID.randomUUID().toString();
@@ -47,6 +58,7 @@ public class InsuredService {
             request.getGender(), request.getTobacco(), request.getCountryCode(),
             request.getStateCode(), request.getSsn()
         );
+        searchIndex.indexClient(clientGUID, request.getFirstName(), request.getLastName(), null);
         
         String roleCode = "02";
         
@@ -92,5 +104,8 @@ public class InsuredService {
             request.getSsn(),
             clientGUID
         );
+        searchIndex.indexClientName(clientGUID, request.getFirstName(), request.getLastName());
+        applicationSummary.refreshForClient(clientGUID);
+        resultCache.clientChanged(clientGUID);
     }
 } 
\ No newline at end of file
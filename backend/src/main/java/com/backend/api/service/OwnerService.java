@@ -6,6 +6,8 @@ import com.backend.api.dto.OwnerSaveRequest.OwnerDTO;
 import com.backend.api.dto.OwnerSaveRequest.AddressDTO;
 import com.backend.api.entity.User;
 import com.backend.api.repository.UserRepository;
+import com.backend.api.search.ApplicationSearchIndex;
+import com.backend.api.search.SearchResultCache;
 import com.backend.api.security.SecurityUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,6 +30,21 @@ public class OwnerService {
     
     @Autowired
     private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationSearchIndex searchIndex;
+    
+    @Autowired
+    private ApplicationSummaryService applicationSummary;
+    
+    @Autowired
+    private SearchResultCache resultCache;
+    
+    @Autowired
+    private ApplicationCounterService applicationCounters;
+    
+    @Autowired
+    private AgentIdentityService agentIdentity;
 
     public OwnerSaveResponse saveOwners(OwnerSaveRequest request) {
         String applicationFormNumber = request.getApplicationFormNumber();
@@ -42,6 +59,7 @@ public class OwnerService {
             String roleGUID = UUID.randomUUID().toString();
             String applicationFormGUID = getApplicationFormGUID(applicationFormNumber);
             boolean isUpdate = applicationFormGUID != null;
+            ApplicationCounterService.Contribution counted = applicationCounters.contribution(applicationFormGUID);
             
             if (applicationFormGUID == null) {
                 applicationFormGUID = UUID.randomUUID().toString();
@@ -68,6 +86,7 @@ public class OwnerService {
                     """,
                     applicationFormGUID, applicationFormNumber, LocalDate.now(), planGUID
                 );
+                searchIndex.indexApplication(applicationFormGUID, applicationFormNumber);
             }
             
             jdbcTemplate.update("""
@@ -82,6 +101,7 @@ public class OwnerService {
                 owner.getGender(), owner.getTobacco(), owner.getCountryCode(),
                 owner.getStateCode(), owner.getSsn(), owner.getBusinessRegistrationNumber()
             );
+            searchIndex.indexClient(clientGUID, owner.getFirstName(), owner.getLastName(), owner.getCompanyName());
             
             String roleCode = owner.getRoleCode() != null ? owner.getRoleCode() : "01";
             
@@ -166,7 +186,7 @@ public class OwnerService {
                 if (currentUser != null) {
                     log.info("Saving agent role for user: {}", currentUser.getName());
                     
-                    String agentClientGUID = getOrCreateClientForUser(currentUser);
+                    String agentClientGUID = agentIdentity.getOrCreateClientGUID(currentUser);
                     
                     String agentRoleGUID = UUID.randomUUID().toString();
                     jdbcTemplate.update("""
@@ -179,6 +199,10 @@ public class OwnerService {
                     log.info("Agent role saved with GUID: {}", agentRoleGUID);
                 }
             }
+            
+            applicationSummary.refresh(applicationFormGUID);
+            applicationCounters.applyChange(applicationFormGUID, counted);
+            resultCache.applicationChanged(applicationFormGUID);
         }
         
         return new OwnerSaveResponse(ownerResponses);
@@ -201,39 +225,4 @@ public class OwnerService {
             return null;
         }
     }
-    
-    /**
-     * Get client GUID for a user, or create a new client record if needed
-     * @param user The user to get or create a client for
-     * @return The client GUID
-     */
-    private String getOrCreateClientForUser(User user) {
-        // Check if client record exists for this user
-        String clientGUID = jdbcTemplate.query(
-            "SELECT ClientGUID FROM frclient WHERE TypeCode = '03' AND FirstName = ? AND LastName = ?",
-            (rs, rowNum) -> rs.getString("ClientGUID"),
-            user.getName().split(" ")[0], // Assuming name format is "FirstName LastName"
-            user.getName().contains(" ") ? user.getName().substring(user.getName().indexOf(" ") + 1) : ""
-        ).stream().findFirst().orElse(null);
-        
-        // Create client record if not exists
-        if (clientGUID == null) {
-            clientGUID = UUID.randomUUID().toString();
-            String firstName = user.getName().split(" ")[0];
-            String lastName = user.getName().contains(" ") 
-                ? user.getName().substring(user.getName().indexOf(" ") + 1) 
-                : "";
-                
-            jdbcTemplate.update("""
-                INSERT INTO frclient (
-                    ClientGUID, TypeCode, FirstName, LastName
-                ) VALUES (?, ?, ?, ?)
-                """,
-                clientGUID, "03", firstName, lastName
-            );
-            log.info("Created new client record for agent with GUID: {}", clientGUID);
-        }
-        
-        return clientGUID;
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.backend.api.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the independent SQL calls of one request in parallel on virtual threads, with the semantics of
+ * StructuredTaskScope.ShutdownOnFailure (a preview API in Java 21): subtasks are forked into a scope,
+ * join waits for all of them, and the first failure or the request deadline cancels the rest.
+ * A request takes one {@link Deadline} up front and shares it between all of its scopes and statements.
+ */
+@Component
+@Slf4j
+public class ParallelQueryExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${search.query-deadline-ms:10000}")
+    private long deadlineMs;
+
+    /**
+     * Start the deadline of a request, search.query-deadline-ms from now
+     */
+    public Deadline deadline() {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs), deadlineMs);
+    }
+
+    /**
+     * Open a scope bounded by the request's deadline
+     */
+    public Scope open(Deadline deadline) {
+        return new Scope(deadline);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static class DeadlineExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The time by which every query of one request must have finished
+     */
+    public static final class Deadline {
+        private final long nanos;
+        private final long budgetMs;
+
+        private Deadline(long nanos, long budgetMs) {
+            this.nanos = nanos;
+            this.budgetMs = budgetMs;
+        }
+
+        public long remainingNanos() {
+            return nanos - System.nanoTime();
+        }
+
+        /**
+         * Time left, rounded up to whole seconds for Statement.setQueryTimeout
+         * @throws DeadlineExceededException If no time is left, so no further statement is started
+         */
+        public int remainingSeconds() {
+            long remaining = remainingNanos();
+            if (remaining <= 0) {
+                throw exceeded();
+            }
+            return (int) ((remaining + 999_999_999) / 1_000_000_000);
+        }
+
+        public DeadlineExceededException exceeded() {
+            return new DeadlineExceededException("Search did not finish within " + budgetMs + " ms");
+        }
+    }
+
+    /**
+     * Result of a forked subtask, available once the scope has joined
+     */
+    public static class Subtask<T> {
+        private final Future<Object> future;
+
+        private Subtask(Future<Object> future) {
+            this.future = future;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Subtask read before the scope joined");
+            }
+            return (T) future.resultNow();
+        }
+    }
+
+    public class Scope implements AutoCloseable {
+        private final Deadline deadline;
+        private final ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        private final List<Future<Object>> forks = new ArrayList<>();
+
+        private Scope(Deadline deadline) {
+            this.deadline = deadline;
+        }
+
+        public <T> Subtask<T> fork(Callable<T> task) {
+            Future<Object> future = completion.submit(task::call);
+            forks.add(future);
+            return new Subtask<>(future);
+        }
+
+        /**
+         * Wait for every subtask. Rethrows the first failure, or throws DeadlineExceededException
+         * once the deadline passes; either way the remaining subtasks are interrupted.
+         */
+        public void join() {
+            try {
+                for (int i = 0; i < forks.size(); i++) {
+                    Future<Object> done = completion.poll(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        cancelAll();
+                        throw deadline.exceeded();
+                    }
+                    done.get();
+                }
+            } catch (ExecutionException e) {
+                cancelAll();
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new RuntimeException(cause);
+            } catch (InterruptedException e) {
+                cancelAll();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for search queries", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void cancelAll() {
+            for (Future<Object> fork : forks) {
+                fork.cancel(true);
+            }
+        }
+    }
+}
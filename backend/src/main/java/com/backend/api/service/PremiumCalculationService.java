@@ -1,212 +1,195 @@
 package com.backend.api.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.backend.api.premium.PaymentMode;
+import com.backend.api.premium.PremiumApplication;
+import com.backend.api.premium.PremiumBatchResult;
+import com.backend.api.premium.PremiumCalculator;
+import com.backend.api.premium.PremiumIllustration;
+import com.backend.api.premium.PremiumIllustrator;
+import com.backend.api.premium.PremiumQuote;
+import com.backend.api.premium.PremiumQuoteCache;
+import com.backend.api.premium.PremiumSweep;
+import com.backend.api.premium.PremiumSweeper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 @Service
 @Slf4j
 public class PremiumCalculationService {
 
-    public JsonNode calculatePremium(JsonNode requestJson) {
-        log.info("Calculating premium for request");
-        Map<String, List<String>> applicationLevelCollection = new HashMap<>();
-        Map<String, Map<String, List<String>>> coverageLevelCollection = new HashMap<>();
-
-        buildInputCollections(requestJson, applicationLevelCollection, coverageLevelCollection);
-        
-        Map<String, Object> premiumResults = calculate(applicationLevelCollection, coverageLevelCollection);
-        
-        return buildJsonResult(premiumResults);
-    }
+    // Quotes take microseconds, so a fork/join leaf prices a run of them rather than one
+    private static final int BATCH_LEAF_SIZE = 16;
 
-    private void buildInputCollections(JsonNode requestJson,
-                                       Map<String, List<String>> applicationLevelCollection,
-                                       Map<String, Map<String, List<String>>> coverageLevelCollection) {
-        String applicationFormGUID = requestJson.path("application").path("ApplicationFormGUID").asText();
-        String planGUID = requestJson.path("application").path("PlanGUID").asText();
-
-        addToCollection(applicationLevelCollection, "ApplicationFormGUID", applicationFormGUID);
-        addToCollection(applicationLevelCollection, "PlanGUID", planGUID);
-
-        JsonNode roles = requestJson.path("application").path("roles");
-        if (roles.isArray()) {
-            for (JsonNode roleNode : roles) {
-                String roleGUID = roleNode.path("RoleGUID").asText();
-                String roleCode = roleNode.path("RoleCode").asText();
-
-                JsonNode client = roleNode.path("client");
-                String clientGUID = client.path("ClientGUID").asText();
-                String clientName = client.path("ClientName").asText();
-                String companyName = client.path("CompanyName").asText("");
-                String gender = client.path("Gender").asText();
-                String tobacco = client.path("Tobacco").asText();
-                String countryCode = client.path("CountryCode").asText();
-                String stateCode = client.path("StateCode").asText();
-                String dateOfBirth = client.path("DateOfBirth").asText();
-                String typeCode = client.path("TypeCode").asText();
-
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_RoleGUID", roleGUID);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_RoleCode", roleCode);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_ClientGUID", clientGUID);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_ClientName", clientName);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_CompanyName", companyName);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_Gender", gender);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_Tobacco", tobacco);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_CountryCode", countryCode);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_StateCode", stateCode);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_DateOfBirth", dateOfBirth);
-                addToCollection(applicationLevelCollection, applicationFormGUID + "_TypeCode", typeCode);
-            }
-        }
+    @Autowired
+    private PremiumCalculator premiumCalculator;
 
-        JsonNode coverages = requestJson.path("application").path("coverages");
-        if (coverages.isArray()) {
-            for (JsonNode coverage : coverages) {
-                String coverageGUID = coverage.path("CoverageGUID").asText();
-                Map<String, List<String>> coverageMap = new HashMap<>();
-
-                String coverageDefinitionGUID = coverage.path("CoverageDefinitionGUID").asText();
-                JsonNode details = coverage.path("coveragedetails");
-
-                addToCollection(coverageMap, coverageGUID + "_CoverageDefinition", coverageDefinitionGUID);
-                addToCollection(coverageMap, coverageGUID + "_FaceAmount", details.path("FaceAmount").asText());
-                addToCollection(coverageMap, coverageGUID + "_TableRating", details.path("TableRating").asText());
-                addToCollection(coverageMap, coverageGUID + "_PermFlat", details.path("PermFlat").asText());
-                addToCollection(coverageMap, coverageGUID + "_TempFlat", details.path("TempFlat").asText());
-                addToCollection(coverageMap, coverageGUID + "_TempFlatDuration", details.path("TempFlatDuration").asText());
-                addToCollection(coverageMap, coverageGUID + "_UWClass", details.path("UWClass").asText());
-
-                JsonNode coverageRoles = coverage.path("roles");
-                if (coverageRoles.isArray()) {
-                    for (JsonNode roleNode : coverageRoles) {
-                        String roleGUID = roleNode.path("RoleGUID").asText();
-                        String roleCode = roleNode.path("RoleCode").asText();
-
-                        JsonNode client = roleNode.path("client");
-                        String clientGUID = client.path("ClientGUID").asText();
-                        String clientName = client.path("ClientName").asText();
-                        String companyName = client.path("CompanyName").asText("");
-                        String gender = client.path("Gender").asText();
-                        String tobacco = client.path("Tobacco").asText();
-                        String countryCode = client.path("CountryCode").asText();
-                        String stateCode = client.path("StateCode").asText();
-                        String dateOfBirth = client.path("DateOfBirth").asText();
-                        String typeCode = client.path("TypeCode").asText();
-
-                        addToCollection(coverageMap, coverageGUID + "_RoleGUID", roleGUID);
-                        addToCollection(coverageMap, coverageGUID + "_RoleCode", roleCode);
-                        addToCollection(coverageMap, coverageGUID + "_ClientGUID", clientGUID);
-                        addToCollection(coverageMap, coverageGUID + "_ClientName", clientName);
-                        addToCollection(coverageMap, coverageGUID + "_CompanyName", companyName);
-                        addToCollection(coverageMap, coverageGUID + "_Gender", gender);
-                        addToCollection(coverageMap, coverageGUID + "_Tobacco", tobacco);
-                        addToCollection(coverageMap, coverageGUID + "_CountryCode", countryCode);
-                        addToCollection(coverageMap, coverageGUID + "_StateCode", stateCode);
-                        addToCollection(coverageMap, coverageGUID + "_DateOfBirth", dateOfBirth);
-                        addToCollection(coverageMap, coverageGUID + "_TypeCode", typeCode);
-                    }
-                }
+    @Autowired
+    private PremiumQuoteCache premiumQuoteCache;
 
-                coverageLevelCollection.put(coverageGUID, coverageMap);
-            }
-        }
-    }
+    @Autowired
+    private PremiumIllustrator premiumIllustrator;
 
-    private Map<String, Object> calculate(Map<String, List<String>> appLevel, Map<String, Map<String, List<String>>> covLevel) {
-        Map<String, Object> result = new HashMap<>();
+    @Autowired
+    private PremiumSweeper premiumSweeper;
 
-        String applicationGUID = getFirst(appLevel, "ApplicationFormGUID");
-        log.info("Calculating premium for application: {}", applicationGUID);
+    @Value("${premium.batch.parallelism:0}")
+    private int batchParallelism;
 
-        BigDecimal totalAnnual = BigDecimal.ZERO;
-        BigDecimal totalMonthly = BigDecimal.ZERO;
-        BigDecimal totalQuarterly = BigDecimal.ZERO;
-        BigDecimal totalSemiAnnual = BigDecimal.ZERO;
+    @Value("${premium.batch.max-size:10000}")
+    private int batchMaxSize;
 
-        for (Map.Entry<String, Map<String, List<String>>> entry : covLevel.entrySet()) {
-            String coverageGUID = entry.getKey();
-            Map<String, List<String>> coverage = entry.getValue();
+    private ForkJoinPool batchPool;
 
-            String faceAmountStr = getFirst(coverage, coverageGUID + "_FaceAmount");
-            if (faceAmountStr.isEmpty()) {
-                log.warn("Missing face amount for coverage: {}", coverageGUID);
-                continue;
-            }
-            
-            BigDecimal faceAmount = new BigDecimal(faceAmountStr);
-            
-            BigDecimal annual = faceAmount.divide(BigDecimal.valueOf(52), 2, RoundingMode.HALF_UP);
-            BigDecimal monthly = faceAmount.divide(BigDecimal.valueOf(624), 2, RoundingMode.HALF_UP);
-            BigDecimal quarterly = faceAmount.divide(BigDecimal.valueOf(208), 2, RoundingMode.HALF_UP);
-            BigDecimal semiAnnual = faceAmount.divide(BigDecimal.valueOf(104), 2, RoundingMode.HALF_UP);
-            
-            result.put(coverageGUID + "_premium", annual);
-            
-            totalAnnual = totalAnnual.add(annual);
-            totalMonthly = totalMonthly.add(monthly);
-            totalQuarterly = totalQuarterly.add(quarterly);
-            totalSemiAnnual = totalSemiAnnual.add(semiAnnual);
-        }
+    @PostConstruct
+    public void init() {
+        // Its own pool, so a large batch neither starves nor is starved by the common pool
+        batchPool = new ForkJoinPool(batchParallelism > 0 ? batchParallelism : Runtime.getRuntime().availableProcessors());
+    }
 
-        result.put(applicationGUID + "_totalAnnualPremium", totalAnnual);
-        result.put(applicationGUID + "_totalMonthlyPremium", totalMonthly);
-        result.put(applicationGUID + "_totalQuarterlyPremium", totalQuarterly);
-        result.put(applicationGUID + "_totalSemiAnnualPremium", totalSemiAnnual);
+    @PreDestroy
+    public void shutdown() {
+        batchPool.shutdownNow();
+    }
 
-        return result;
+    public PremiumQuote calculatePremium(PremiumApplication application) {
+        log.info("Calculating premium for request");
+        return premiumQuoteCache.get(application, () -> premiumCalculator.calculate(application));
     }
-    
-    private boolean isCoverageDerivedFromBase(Map<String, List<String>> coverage) {
-        String defGuid = getFirst(coverage, coverage.keySet().stream()
-                .filter(s -> s.endsWith("_CoverageDefinition"))
-                .findFirst()
-                .orElse(""));
-        
-        return defGuid.contains("base") || defGuid.contains("Base");
+
+    /**
+     * Project the premiums of the application over its first {@code durations} policy years
+     */
+    public PremiumIllustration illustratePremium(PremiumApplication application, int durations) {
+        log.info("Illustrating premium for {} years", durations);
+        return premiumIllustrator.illustrate(application, durations);
     }
-    
-    private BigDecimal getUnderwritingFactor(String uwClass) {
-        switch (uwClass) {
-            case "01":
-                return new BigDecimal("1.0");
-            case "02": 
-                return new BigDecimal("0.9");
-            case "03": 
-                return new BigDecimal("0.8");
-            case "04": 
-                return new BigDecimal("0.7");
-            default:
-                return new BigDecimal("1.0");
-        }
+
+    /**
+     * Price the application over a grid of face amounts and UW classes of one coverage
+     */
+    public PremiumSweep sweepPremium(PremiumApplication application, String coverageGUID, BigDecimal faceFrom,
+                                     BigDecimal faceTo, BigDecimal faceStep, List<String> uwClasses, PaymentMode mode) {
+        log.info("Sweeping premium of coverage {} from {} to {} by {}", coverageGUID, faceFrom, faceTo, faceStep);
+        return premiumSweeper.sweep(application, coverageGUID, faceFrom, faceTo, faceStep, uwClasses, mode);
     }
 
-    private String getFirst(Map<String, List<String>> map, String key) {
-        List<String> values = map.getOrDefault(key, List.of());
-        return values.isEmpty() ? "" : values.get(0);
+    /**
+     * Find the largest face amount of one coverage that keeps the application's total premium within a target
+     */
+    public PremiumSweep.Solution solveFaceAmount(PremiumApplication application, String coverageGUID,
+                                                 BigDecimal targetPremium, PaymentMode mode, BigDecimal faceStep,
+                                                 String uwClass) {
+        log.info("Solving face amount of coverage {} for a {} premium of {}", coverageGUID, mode, targetPremium);
+        return premiumSweeper.solve(application, coverageGUID, targetPremium, mode, faceStep, uwClass);
     }
 
-    private JsonNode buildJsonResult(Map<String, Object> premiumResults) {
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode resultNode = mapper.createObjectNode();
+    /**
+     * Price a JSON array of premium requests, each in the shape accepted by {@link #calculatePremium},
+     * in parallel. A request that cannot be read or priced gets an error in its result; the others are unaffected.
+     * @param parser A parser positioned before the array, created by an ObjectMapper
+     * @return One result per request, in input order
+     * @throws IllegalArgumentException If the body is not an array or holds more than premium.batch.max-size requests
+     * @throws JsonProcessingException If the body is not well-formed JSON
+     */
+    public List<PremiumBatchResult> calculatePremiums(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected a JSON array of premium requests");
+        }
+        JsonStreamContext batch = parser.getParsingContext();
+        List<PremiumApplication> applications = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (applications.size() == batchMaxSize) {
+                throw new IllegalArgumentException("A batch holds at most " + batchMaxSize + " premium requests");
+            }
+            try {
+                applications.add(parser.readValueAs(PremiumApplication.class));
+                errors.add(null);
+            } catch (RuntimeException e) {
+                // Skip the rest of the bad request, so reading resumes at the next one
+                while (parser.getParsingContext() != batch) {
+                    parser.nextToken();
+                }
+                applications.add(null);
+                errors.add("Failed to calculate premium: " + e.getMessage());
+            }
+        }
 
-        for (Map.Entry<String, Object> entry : premiumResults.entrySet()) {
-            if (entry.getValue() instanceof BigDecimal) {
-                resultNode.put(entry.getKey(), ((BigDecimal) entry.getValue()).doubleValue());
-            } else {
-                resultNode.put(entry.getKey(), entry.getValue().toString());
+        log.info("Calculating premiums for a batch of {} requests", applications.size());
+        long start = System.nanoTime();
+        PremiumBatchResult[] results = new PremiumBatchResult[applications.size()];
+        for (int i = 0; i < results.length; i++) {
+            if (errors.get(i) != null) {
+                results[i] = PremiumBatchResult.failed(i, errors.get(i));
             }
         }
-        return resultNode;
+        batchPool.invoke(new PriceRange(premiumCalculator, premiumQuoteCache, applications, results, 0, results.length));
+        log.info("Priced {} requests in {} ms", results.length, (System.nanoTime() - start) / 1_000_000);
+        return Arrays.asList(results);
     }
 
-    private void addToCollection(Map<String, List<String>> map, String key, String value) {
-        map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+    /**
+     * Prices applications[from, to) into results, splitting in halves down to BATCH_LEAF_SIZE. Every request
+     * goes through the quote cache like a single quote, so a batch both reuses and fills it. Tasks are never
+     * serialized, so their fields are transient.
+     */
+    private static class PriceRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient PremiumCalculator calculator;
+        private final transient PremiumQuoteCache cache;
+        private final transient List<PremiumApplication> applications;
+        private final transient PremiumBatchResult[] results;
+        private final int from;
+        private final int to;
+
+        PriceRange(PremiumCalculator calculator, PremiumQuoteCache cache, List<PremiumApplication> applications,
+                   PremiumBatchResult[] results, int from, int to) {
+            this.calculator = calculator;
+            this.cache = cache;
+            this.applications = applications;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    PremiumApplication application = applications.get(i);
+                    if (application == null) {
+                        continue;
+                    }
+                    try {
+                        results[i] = PremiumBatchResult.quoted(i, cache.get(application, () -> calculator.calculate(application)));
+                    } catch (Exception e) {
+                        log.warn("Error calculating premium for batch request {}: {}", i, e.getMessage());
+                        results[i] = PremiumBatchResult.failed(i, "Failed to calculate premium: " + e.getMessage());
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PriceRange(calculator, cache, applications, results, from, middle),
+                      new PriceRange(calculator, cache, applications, results, middle, to));
+        }
     }
-} 
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.backend.api.service;
 
 import com.backend.api.dto.ProductDto;
 import com.backend.api.dto.PlanDto;
+import com.backend.api.search.SearchResultCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -20,6 +21,12 @@ public class ProductService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
     
+    @Autowired
+    private ApplicationSummaryService applicationSummary;
+    
+    @Autowired
+    private SearchResultCache resultCache;
+    
     public List<Map<String, Object>> getProductsByCompany(String companyName) {
         log.info("Getting products for company: {}", companyName);
         
@@ -54,5 +61,11 @@ public class ProductService {
         
         int rowsUpdated = jdbcTemplate.update(sql, planGUID, applicationFormNumber);
         log.info("Updated {} rows in frapplicationform", rowsUpdated);
+        applicationSummary.refreshByNumber(applicationFormNumber);
+        jdbcTemplate.queryForList(
+            "SELECT ApplicationFormGUID FROM frapplicationform WHERE ApplicationFormNumber = ?",
+            String.class,
+            applicationFormNumber
+        ).forEach(resultCache::applicationChanged);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.backend.api.service;
+
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.dto.SearchCriteria;
+import io.r2dbc.spi.Row;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Non-blocking application search over R2DBC. Queries are planned by SearchService exactly as for the
+ * blocking path; only their execution differs. Rows are emitted as MySQL sends them, and are requested
+ * from the driver in batches of search.reactive.prefetch as the subscriber consumes them, so a slow
+ * client slows the query down instead of buffering the result.
+ */
+@Service
+@Profile("reactive-search")
+@Slf4j
+public class ReactiveSearchService {
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private DatabaseClient searchDatabaseClient;
+
+    @Value("${search.reactive.prefetch:256}")
+    private int prefetch;
+
+    /**
+     * Every application matching the criteria, in the search ordering
+     */
+    public Flux<ApplicationSearchRow> search(SearchCriteria criteria) {
+        // Planning reads the search index, counters and users, some of which block
+        return Mono.fromCallable(() -> searchService.query(criteria))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(this::execute);
+    }
+
+    private Flux<ApplicationSearchRow> execute(SearchQuery query) {
+        String sql = query.sql() + " ORDER BY " + query.alias() + ".LastModifiedDate DESC, "
+                + query.alias() + ".ApplicationFormGUID DESC";
+        DatabaseClient.GenericExecuteSpec spec = searchDatabaseClient.sql(sql);
+        List<Object> params = query.params();
+        for (int i = 0; i < params.size(); i++) {
+            spec = spec.bind(i, params.get(i));
+        }
+        ApplicationSearchRowMapper mapper = ApplicationSearchRowMapper.forColumns(query.columns());
+        return spec.map((row, metadata) -> mapper.map(new R2dbcColumns(row)))
+                .all()
+                .limitRate(prefetch)
+                .doOnError(e -> log.error("Reactive search failed: {}", e.getMessage()));
+    }
+
+    /**
+     * An R2DBC row as the columns {@link ApplicationSearchRowMapper} maps from
+     */
+    private record R2dbcColumns(Row row) implements ApplicationSearchRowMapper.Columns<RuntimeException> {
+
+        @Override
+        public String string(String alias) {
+            return row.get(alias, String.class);
+        }
+
+        @Override
+        public LocalDate date(String alias) {
+            return row.get(alias, LocalDate.class);
+        }
+
+        @Override
+        public Timestamp timestamp(String alias) {
+            LocalDateTime timestamp = row.get(alias, LocalDateTime.class);
+            return timestamp != null ? Timestamp.valueOf(timestamp) : null;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.backend.api.service;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A filtered application search query before ordering and paging are applied
+ * @param sql SELECT with the shared column aliases and its WHERE clause, open for further AND conditions
+ * @param alias Alias of the table supplying LastModifiedDate and ApplicationFormGUID for the ordering
+ * @param params Bind values for the placeholders in sql
+ * @param shape Summary of the joins and predicates; queries of equal shape have equal SQL text
+ * @param columns The row columns selected; empty for count and facet queries
+ * @param windowTotal Whether each row also carries the total number of matching rows as totalCount
+ */
+public record SearchQuery(String sql, String alias, List<Object> params, String shape,
+                          Set<SearchQueryBuilder.Column> columns, boolean windowTotal) {
+
+    /**
+     * Maps the rows of this query, leaving the fields it does not select null
+     */
+    public ApplicationSearchRowMapper rowMapper() {
+        return ApplicationSearchRowMapper.forColumns(columns);
+    }
+}
@@ -0,0 +1,355 @@
+package com.backend.api.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds application search SQL from composable predicates, against either the fr* tables or the
+ * application_summary read model. Only the joins that the selected columns and the predicates need
+ * are emitted, and the SQL text depends only on the query's shape (which predicates, row or count,
+ * IN-list size bucket), so searches of the same shape reuse one statement and plan.
+ */
+public class SearchQueryBuilder {
+
+    /**
+     * Tables joined onto frapplicationform af, each with the table it hangs off
+     */
+    enum Table {
+        OWNER_ROLE("r", "frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'", null),
+        OWNER("c", "frclient c ON r.ClientGUID = c.ClientGUID", OWNER_ROLE),
+        ADDRESS("a", "fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'", OWNER),
+        ADDRESS_DETAILS("ad", "fraddressdetails ad ON a.AddressGUID = ad.AddressGUID", ADDRESS),
+        AGENT_ROLE("agentR", "frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'", null),
+        AGENT("agentC", "frclient agentC ON agentR.ClientGUID = agentC.ClientGUID", AGENT_ROLE);
+
+        final String alias;
+        final String join;
+        final Table parent;
+
+        Table(String alias, String join, Table parent) {
+            this.alias = alias;
+            this.join = join;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * Row columns, under the aliases ApplicationSearchRowMapper reads
+     */
+    public enum Column {
+        APPLICATION_NUMBER("applicationNumber", "af.ApplicationFormNumber", "s.ApplicationFormNumber", null),
+        APPLICATION_FORM_GUID("applicationFormGUID", "af.ApplicationFormGUID", "s.ApplicationFormGUID", null),
+        FIRST_NAME("firstName", "c.FirstName", "s.OwnerFirstName", Table.OWNER),
+        LAST_NAME("lastName", "c.LastName", "s.OwnerLastName", Table.OWNER),
+        COMPANY_NAME("companyName", "c.CompanyName", "s.OwnerCompanyName", Table.OWNER),
+        DATE_OF_BIRTH("dateOfBirth", "c.DateOfBirth", "s.OwnerDateOfBirth", Table.OWNER),
+        PRIMARY_ADDRESS("primaryAddress", """
+            CONCAT(COALESCE(ad.AddressLine1, ''),
+                  CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
+                  CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
+                  CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END)""",
+            "s.PrimaryAddress", Table.ADDRESS_DETAILS),
+        LAST_MODIFIED_DATE("lastModifiedDate", "af.LastModifiedDate", "s.LastModifiedDate", null),
+        STATUS("status", "r.StatusCode", "s.StatusCode", Table.OWNER_ROLE),
+        OWNER_TYPE("ownerType", "c.TypeCode", "s.OwnerTypeCode", Table.OWNER),
+        CREATED_BY("createdBy", "CONCAT(agentC.FirstName, ' ', agentC.LastName)", "s.CreatedBy", Table.AGENT);
+
+        final String alias;
+        final String expression;
+        final String summaryExpression;
+        final Table table;
+
+        Column(String alias, String expression, String summaryExpression, Table table) {
+            this.alias = alias;
+            this.expression = expression;
+            this.summaryExpression = summaryExpression;
+            this.table = table;
+        }
+    }
+
+    private record Predicate(String name, String condition, Table table, List<Object> params) {
+    }
+
+    private final boolean summary;
+    private final Set<Column> columns = EnumSet.allOf(Column.class);
+    private final List<Predicate> predicates = new ArrayList<>();
+    private boolean agentFiltered;
+    private boolean windowTotal;
+    private String forcedIndex;
+
+    private SearchQueryBuilder(boolean summary) {
+        this.summary = summary;
+    }
+
+    /**
+     * @param summary Query application_summary instead of joining the fr* tables
+     */
+    public static SearchQueryBuilder from(boolean summary) {
+        return new SearchQueryBuilder(summary);
+    }
+
+    /**
+     * Restrict the row projection; every column is selected by default
+     */
+    public SearchQueryBuilder select(Set<Column> selected) {
+        columns.clear();
+        columns.addAll(selected);
+        columns.add(Column.APPLICATION_FORM_GUID);
+        columns.add(Column.LAST_MODIFIED_DATE);
+        return this;
+    }
+
+    /**
+     * Also select COUNT(*) OVER() as totalCount, the number of rows matching before ordering and paging
+     */
+    public SearchQueryBuilder windowTotal() {
+        windowTotal = true;
+        return this;
+    }
+
+    /**
+     * The columns behind the named response fields (those of ApplicationSearchRow)
+     * @throws IllegalArgumentException For an unknown field
+     */
+    public static Set<Column> columnsFor(Collection<String> fields) {
+        Set<Column> selected = EnumSet.noneOf(Column.class);
+        for (String field : fields) {
+            switch (field.trim()) {
+                case "applicationNumber" -> selected.add(Column.APPLICATION_NUMBER);
+                // Whether a row shows ownerName/dateOfBirth or companyName depends on the owner type
+                case "ownerName" -> selected.addAll(EnumSet.of(Column.FIRST_NAME, Column.LAST_NAME, Column.OWNER_TYPE));
+                case "dateOfBirth" -> selected.addAll(EnumSet.of(Column.DATE_OF_BIRTH, Column.OWNER_TYPE));
+                case "companyName" -> selected.addAll(EnumSet.of(Column.COMPANY_NAME, Column.OWNER_TYPE));
+                case "primaryAddress" -> selected.add(Column.PRIMARY_ADDRESS);
+                case "lastModifiedDate" -> selected.add(Column.LAST_MODIFIED_DATE);
+                case "status" -> selected.add(Column.STATUS);
+                case "ownerType" -> selected.add(Column.OWNER_TYPE);
+                case "createdBy" -> selected.add(Column.CREATED_BY);
+                default -> throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return selected;
+    }
+
+    public SearchQueryBuilder applicationNumberLike(String term) {
+        return where("number", summary ? "s.ApplicationFormNumber LIKE ?" : "af.ApplicationFormNumber LIKE ?",
+                null, "%" + term + "%");
+    }
+
+    public SearchQueryBuilder ownerType(String typeCode) {
+        return where("ownerType", summary ? "s.OwnerTypeCode = ?" : "c.TypeCode = ?", Table.OWNER, typeCode);
+    }
+
+    /**
+     * (FirstName LIKE %firstName% OR LastName LIKE %lastName%), where a blank side matches anything
+     */
+    public SearchQueryBuilder ownerNameLike(String firstName, String lastName) {
+        return where("ownerName", summary ? "(s.OwnerFirstName LIKE ? OR s.OwnerLastName LIKE ?)"
+                : "(c.FirstName LIKE ? OR c.LastName LIKE ?)", Table.OWNER, likeOrAny(firstName), likeOrAny(lastName));
+    }
+
+    public SearchQueryBuilder companyNameLike(String companyName) {
+        return where("companyName", summary ? "s.OwnerCompanyName LIKE ?" : "c.CompanyName LIKE ?",
+                Table.OWNER, "%" + companyName + "%");
+    }
+
+    public SearchQueryBuilder planIs(String planGUID) {
+        return where("plan", summary ? "s.PlanGUID = ?" : "af.PlanGUID = ?", null, planGUID);
+    }
+
+    /**
+     * LastModifiedDate within the two days, inclusive; a null bound is open
+     */
+    public SearchQueryBuilder modifiedBetween(LocalDate from, LocalDate to) {
+        String column = summary ? "s.LastModifiedDate" : "af.LastModifiedDate";
+        if (from != null && to != null) {
+            return where("modified", column + " >= ? AND " + column + " < ?", null, from, to.plusDays(1));
+        }
+        if (from != null) {
+            return where("modifiedFrom", column + " >= ?", null, from);
+        }
+        return where("modifiedTo", column + " < ?", null, to.plusDays(1));
+    }
+
+    /**
+     * Make the driving table (frapplicationform or application_summary) seek on the given index
+     */
+    public SearchQueryBuilder forceIndex(String index) {
+        forcedIndex = index;
+        return this;
+    }
+
+    /**
+     * Only applications the agent is on, by the agent's ClientGUID; the agent joins become inner joins
+     */
+    public SearchQueryBuilder agent(String agentClientGUID) {
+        agentFiltered = true;
+        return where("agent", summary ? "s.AgentClientGUID = ?" : "agentR.ClientGUID = ?", Table.AGENT_ROLE, agentClientGUID);
+    }
+
+    /**
+     * Restrict to the application GUIDs the search index resolved a filter to
+     */
+    public SearchQueryBuilder applicationIn(List<String> keys) {
+        return in("applicationIn", summary ? "s.ApplicationFormGUID" : "af.ApplicationFormGUID", null, keys);
+    }
+
+    /**
+     * Restrict to the owner client GUIDs the search index resolved a filter to
+     */
+    public SearchQueryBuilder ownerIn(List<String> keys) {
+        return in("ownerIn", summary ? "s.OwnerClientGUID" : "c.ClientGUID", Table.OWNER, keys);
+    }
+
+    /**
+     * The unpaged row query, open for further AND conditions
+     */
+    public SearchQuery build() {
+        StringBuilder sql = new StringBuilder("SELECT\n");
+        Set<Table> tables = requiredTables(true);
+        if (windowTotal) {
+            sql.append("    COUNT(*) OVER() as totalCount,\n");
+        }
+        sql.append(columns.stream()
+                .map(column -> "    " + (summary ? column.summaryExpression : column.expression) + " as " + column.alias)
+                .collect(Collectors.joining(",\n")));
+        appendFrom(sql, tables);
+        List<Object> params = appendWhere(sql);
+        return new SearchQuery(sql.toString(), summary ? "s" : "af", params,
+                shape(tables, windowTotal ? "rows+total" : "rows"),
+                Collections.unmodifiableSet(EnumSet.copyOf(columns)), windowTotal);
+    }
+
+    /**
+     * COUNT(*) over the same filter, without the joins only the row columns need
+     */
+    public SearchQuery buildCount() {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*)");
+        Set<Table> tables = requiredTables(false);
+        appendFrom(sql, tables);
+        List<Object> params = appendWhere(sql);
+        return new SearchQuery(sql.toString(), summary ? "s" : "af", params, shape(tables, "count"), Set.of(), false);
+    }
+
+    /**
+     * Counts per (agent, plan, status, month) combination over the same filter, in one GROUP BY.
+     * Columns: agentClientGUID, agentName, planGUID, status, month (yyyy-MM), total.
+     */
+    public SearchQuery buildFacets() {
+        StringBuilder sql = new StringBuilder(summary ? """
+            SELECT
+                s.AgentClientGUID as agentClientGUID,
+                s.CreatedBy as agentName,
+                s.PlanGUID as planGUID,
+                s.StatusCode as status,
+                DATE_FORMAT(s.LastModifiedDate, '%Y-%m') as month,
+                COUNT(*) as total""" : """
+            SELECT
+                agentR.ClientGUID as agentClientGUID,
+                CONCAT(agentC.FirstName, ' ', agentC.LastName) as agentName,
+                af.PlanGUID as planGUID,
+                r.StatusCode as status,
+                DATE_FORMAT(af.LastModifiedDate, '%Y-%m') as month,
+                COUNT(*) as total""");
+        Set<Table> tables = requiredTables(false);
+        addWithParents(tables, Table.AGENT);
+        appendFrom(sql, tables);
+        List<Object> params = appendWhere(sql);
+        sql.append("GROUP BY agentClientGUID, agentName, planGUID, status, month");
+        return new SearchQuery(sql.toString(), summary ? "s" : "af", params, shape(tables, "facets"), Set.of(), false);
+    }
+
+    private SearchQueryBuilder where(String name, String condition, Table table, Object... params) {
+        predicates.add(new Predicate(name, condition, table, List.of(params)));
+        return this;
+    }
+
+    /**
+     * IN lists are padded to the next power of two by repeating the last key, so the number of
+     * distinct statements stays logarithmic in the candidate limit
+     */
+    private SearchQueryBuilder in(String name, String column, Table table, List<String> keys) {
+        int bucket = Integer.highestOneBit(Math.max(1, keys.size() * 2 - 1));
+        List<Object> params = new ArrayList<>(bucket);
+        params.addAll(keys);
+        while (params.size() < bucket) {
+            params.add(keys.get(keys.size() - 1));
+        }
+        predicates.add(new Predicate(name + "(" + bucket + ")",
+                column + " IN (" + String.join(", ", Collections.nCopies(bucket, "?")) + ")", table, params));
+        return this;
+    }
+
+    private Set<Table> requiredTables(boolean rows) {
+        Set<Table> tables = EnumSet.noneOf(Table.class);
+        if (summary) {
+            return tables;
+        }
+        // The owner role defines which applications are listed at all
+        tables.add(Table.OWNER_ROLE);
+        if (rows) {
+            for (Column column : columns) {
+                addWithParents(tables, column.table);
+            }
+        }
+        for (Predicate predicate : predicates) {
+            addWithParents(tables, predicate.table());
+        }
+        return tables;
+    }
+
+    private static void addWithParents(Set<Table> tables, Table table) {
+        for (Table t = table; t != null; t = t.parent) {
+            tables.add(t);
+        }
+    }
+
+    private void appendFrom(StringBuilder sql, Set<Table> tables) {
+        String hint = forcedIndex != null ? " FORCE INDEX (" + forcedIndex + ")" : "";
+        if (summary) {
+            sql.append("\nFROM application_summary s").append(hint).append('\n');
+            return;
+        }
+        sql.append("\nFROM frapplicationform af").append(hint).append('\n');
+        for (Table table : tables) {
+            sql.append(joinType(table)).append(' ').append(table.join).append('\n');
+        }
+    }
+
+    private String joinType(Table table) {
+        return switch (table) {
+            case OWNER_ROLE, OWNER -> "JOIN";
+            case ADDRESS, ADDRESS_DETAILS -> "LEFT JOIN";
+            case AGENT_ROLE, AGENT -> agentFiltered ? "JOIN" : "LEFT JOIN";
+        };
+    }
+
+    private List<Object> appendWhere(StringBuilder sql) {
+        sql.append("WHERE 1 = 1\n");
+        List<Object> params = new ArrayList<>();
+        for (Predicate predicate : predicates) {
+            sql.append("AND ").append(predicate.condition()).append('\n');
+            params.addAll(predicate.params());
+        }
+        return params;
+    }
+
+    private String shape(Set<Table> tables, String projection) {
+        String from = summary ? "application_summary" : tables.stream()
+                .map(table -> joinType(table).equals("JOIN") ? table.alias : table.alias + "?")
+                .collect(Collectors.joining(",", "af[", "]"));
+        String where = predicates.stream().map(Predicate::name).collect(Collectors.joining(","));
+        String seek = forcedIndex != null ? " seek[" + forcedIndex + "]" : "";
+        return projection + " " + from + seek + " where[" + where + "]";
+    }
+
+    private static String likeOrAny(String term) {
+        return term != null && !term.isEmpty() ? "%" + term + "%" : "%";
+    }
+}
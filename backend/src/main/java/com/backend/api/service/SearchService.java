@@ -1,16 +1,42 @@
 package com.backend.api.service;
 
-import com.backend.api.entity.User;
-import com.backend.api.repository.UserRepository;
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.dto.SearchCriteria;
+import com.backend.api.dto.SearchCursor;
+import com.backend.api.dto.SearchFacets;
+import com.backend.api.dto.SearchPageRequest;
+import com.backend.api.dto.SearchResult;
+import com.backend.api.search.ApplicationSearchIndex;
+import com.backend.api.search.FuzzyNameIndex;
+import com.backend.api.search.SearchResultCache;
+import com.backend.api.search.SearchStatistics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -20,659 +46,562 @@ public class SearchService {
     private JdbcTemplate jdbcTemplate;
     
     @Autowired
-    private UserRepository userRepository;
+    private AgentIdentityService agentIdentity;
+    
+    @Autowired
+    private ApplicationSearchIndex searchIndex;
+    
+    @Autowired
+    private ApplicationSummaryService applicationSummary;
+    
+    @Autowired
+    private SearchResultCache resultCache;
+    
+    @Autowired
+    private ApplicationCounterService applicationCounters;
+    
+    @Autowired
+    private ParallelQueryExecutor parallelQueries;
+
+    @Autowired
+    private SearchStatistics searchStatistics;
 
-    public List<Map<String, Object>> searchByApplicationNumber(String applicationNumber, int page, int size, String agentEmail) {
-        log.info("Searching for application with number: {} for agent: {} (page: {}, size: {})", 
-                applicationNumber, agentEmail, page, size);
+    @Value("${search.log-plans:false}")
+    private boolean logPlans;
+    
+    @Value("${search.planner.seek-max-fraction:0.2}")
+    private double seekMaxFraction;
+    
+    @Value("${search.fuzzy.max-distance:2}")
+    private int fuzzyMaxDistance;
+    
+    // Names up to this long tolerate a single typo only; two edits would match most short names
+    @Value("${search.fuzzy.short-name-length:4}")
+    private int fuzzyShortNameLength;
+    
+    // Shapes whose plan has already been logged
+    private final Set<String> explainedShapes = ConcurrentHashMap.newKeySet();
 
-        String sql;
-        List<Object> params = new ArrayList<>();
-        params.add("%" + applicationNumber + "%");
-        
-        if (agentEmail != null && !agentEmail.isEmpty()) {
-            User agent = userRepository.findByEmail(agentEmail).orElse(null);
-            if (agent != null) {
-                String firstName = agent.getName().split(" ")[0];
-                String lastName = agent.getName().contains(" ") 
-                    ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-                    : "";
-                    
-                sql = """
-                    SELECT 
-                        af.ApplicationFormNumber as applicationNumber, 
-                        c.FirstName as firstName, 
-                        c.LastName as lastName, 
-                        c.CompanyName as companyName,
-                        c.DateOfBirth as dateOfBirth,
-                        CONCAT(COALESCE(ad.AddressLine1, ''), 
-                              CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                              CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                              CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                        af.LastModifiedDate as lastModifiedDate,
-                        r.StatusCode as status,
-                        c.TypeCode as ownerType,
-                        CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                    LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                    JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE af.ApplicationFormNumber LIKE ?
-                    AND agentC.FirstName = ? AND agentC.LastName = ?
-                    ORDER BY af.LastModifiedDate DESC
-                    LIMIT ? OFFSET ?
-                """;
-                params.add(firstName);
-                params.add(lastName);
-            } else {
-                sql = """
-                    SELECT 
-                        af.ApplicationFormNumber as applicationNumber, 
-                        c.FirstName as firstName, 
-                        c.LastName as lastName, 
-                        c.CompanyName as companyName,
-                        c.DateOfBirth as dateOfBirth,
-                        CONCAT(COALESCE(ad.AddressLine1, ''), 
-                              CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                              CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                              CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                        af.LastModifiedDate as lastModifiedDate,
-                        r.StatusCode as status,
-                        c.TypeCode as ownerType,
-                        CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                    LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                    LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE af.ApplicationFormNumber LIKE ?
-                    ORDER BY af.LastModifiedDate DESC
-                    LIMIT ? OFFSET ?
-                """;
-            }
-        } else {
-            sql = """
-                SELECT 
-                    af.ApplicationFormNumber as applicationNumber, 
-                    c.FirstName as firstName, 
-                    c.LastName as lastName, 
-                    c.CompanyName as companyName,
-                    c.DateOfBirth as dateOfBirth,
-                    CONCAT(COALESCE(ad.AddressLine1, ''), 
-                          CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                          CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                          CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                    af.LastModifiedDate as lastModifiedDate,
-                    r.StatusCode as status,
-                    c.TypeCode as ownerType,
-                    CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                FROM frapplicationform af
-                JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                WHERE af.ApplicationFormNumber LIKE ?
-                ORDER BY af.LastModifiedDate DESC
-                LIMIT ? OFFSET ?
-            """;
+    /**
+     * Search applications by any combination of filters
+     */
+    public SearchResult search(SearchCriteria criteria, SearchPageRequest pageRequest) {
+        return search(criteria, pageRequest, null, parallelQueries.deadline());
+    }
+
+    /**
+     * Search applications, selecting and joining only what the given row columns need
+     * @param columns The columns to select, or null for all of them
+     * @param deadline The request's deadline, which the page and count statements share
+     */
+    public SearchResult search(SearchCriteria criteria, SearchPageRequest pageRequest, Set<SearchQueryBuilder.Column> columns,
+                               ParallelQueryExecutor.Deadline deadline) {
+        log.info("Searching applications - criteria: {} (page: {}, size: {})", criteria, pageRequest.getPage(), pageRequest.getSize());
+        SearchResultCache.Key key = cacheKey("search", pageRequest, criteria.getAgentEmail(), criteria.getApplicationNumber(),
+                criteria.getOwnerType(), criteria.getFirstName(), criteria.getLastName(), criteria.getCompanyName(),
+                criteria.getPlanGUID(), Objects.toString(criteria.getModifiedFrom(), null),
+                Objects.toString(criteria.getModifiedTo(), null));
+        Supplier<SearchResultCache.Total> total = criteria.hasFilters()
+                ? cachedCount(key, () -> count(criteria, deadline))
+                : () -> new SearchResultCache.Total(count(criteria, deadline), true);
+        SearchResultCache.Key pageKey = columns != null ? key.forProjection(columns.toString()) : key;
+        // Offset pages take their total from the page statement itself
+        boolean windowTotal = pageRequest.isIncludeTotal() && pageRequest.getCursor() == null;
+        return cachedSearch(pageKey, criteria.getAgentEmail(), pageRequest,
+                () -> timed(() -> executeQuery(query(criteria, columns, windowTotal), pageRequest, total, deadline),
+                        deadline));
+    }
+
+    public SearchResult getAllApplications(SearchPageRequest pageRequest) {
+        return search(new SearchCriteria(), pageRequest);
+    }
+
+    /**
+     * Get all applications for the current logged-in user 
+     */
+    public SearchResult getApplicationsByAgent(String agentEmail, SearchPageRequest pageRequest,
+                                               ParallelQueryExecutor.Deadline deadline) {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setAgentEmail(agentEmail);
+        return search(criteria, pageRequest, null, deadline);
+    }
+
+    /**
+     * Applications whose individual owner's name is close to the given one, allowing typos and phonetic
+     * misspellings, best match first and then most recently modified. Owners are resolved through the
+     * in-memory name index, so the database only sees a key lookup; before the index has loaded this
+     * falls back to the LIKE search. Owners written on another instance are matched from its next poll
+     * of the change log on, since no LIKE can stand in for a fuzzy match.
+     * @param limit Maximum number of owners matched, and of rows returned
+     */
+    public List<ApplicationSearchRow> fuzzySearch(String firstName, String lastName, int limit, String agentEmail,
+                                                  ParallelQueryExecutor.Deadline deadline) {
+        log.info("Fuzzy searching applications - firstName: {}, lastName: {}, limit: {}", firstName, lastName, limit);
+        if (!SearchCriteria.present(firstName) && !SearchCriteria.present(lastName)) {
+            return List.of();
         }
-        
-        params.add(size);
-        params.add(page * size);
-        return executeQuery(sql, params.toArray());
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.setAgentEmail(agentEmail);
+        String driving = SearchCriteria.present(lastName) ? lastName : firstName;
+        int maxDistance = driving.trim().length() <= fuzzyShortNameLength ? Math.min(1, fuzzyMaxDistance) : fuzzyMaxDistance;
+        List<FuzzyNameIndex.Match> matches = searchIndex.findSimilarNames(firstName, lastName, maxDistance, limit);
+        if (matches == null) {
+            criteria.setOwnerType("individual");
+            criteria.setFirstName(firstName);
+            criteria.setLastName(lastName);
+            SearchResult result = search(criteria, new SearchPageRequest(0, limit, null, false), null, deadline);
+            return result.getContent();
+        }
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        SearchQueryBuilder builder = builder(criteria);
+        if (builder == null) {
+            return List.of();
+        }
+        Map<String, Integer> scores = new HashMap<>();
+        for (FuzzyNameIndex.Match match : matches) {
+            scores.merge(ownerKey(match.firstName() + " " + match.lastName()), match.score(), Math::min);
+        }
+        SearchQuery query = explained(builder
+                .ownerType("01")
+                .ownerIn(matches.stream().map(FuzzyNameIndex.Match::clientGUID).toList())
+                .build());
+        List<ApplicationSearchRow> rows = new ArrayList<>(timed(() -> jdbcTemplate.query(
+                statement(query.sql(), query.params(), deadline), query.rowMapper()), deadline));
+        rows.sort(Comparator.<ApplicationSearchRow>comparingInt(row -> scores.getOrDefault(ownerKey(row.ownerName()), Integer.MAX_VALUE))
+                .thenComparing(ApplicationSearchRow::lastModified, Comparator.nullsLast(Comparator.reverseOrder())));
+        return rows.size() > limit ? rows.subList(0, limit) : rows;
     }
 
-    public long countByApplicationNumber(String applicationNumber, String agentEmail) {
-        String sql;
-        List<Object> params = new ArrayList<>();
-        params.add("%" + applicationNumber + "%");
-        
-        if (agentEmail != null && !agentEmail.isEmpty()) {
-            User agent = userRepository.findByEmail(agentEmail).orElse(null);
-            if (agent != null) {
-                String firstName = agent.getName().split(" ")[0];
-                String lastName = agent.getName().contains(" ") 
-                    ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-                    : "";
-                    
-                sql = """
-                    SELECT COUNT(*)
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE af.ApplicationFormNumber LIKE ?
-                    AND agentC.FirstName = ? AND agentC.LastName = ?
-                """;
-                params.add(firstName);
-                params.add(lastName);
-            } else {
-                sql = """
-                    SELECT COUNT(*)
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    WHERE af.ApplicationFormNumber LIKE ?
-                """;
-            }
-        } else {
-            sql = """
-                SELECT COUNT(*)
-                FROM frapplicationform af
-                JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                WHERE af.ApplicationFormNumber LIKE ?
-            """;
+    /**
+     * Counts of the applications matching the criteria per agent, plan, status and month. One GROUP BY
+     * over the filtered set returns a count per combination, which is then summed per dimension, so
+     * the filtered rows are read once. Results are cached like filtered totals.
+     */
+    public SearchFacets facets(SearchCriteria criteria, ParallelQueryExecutor.Deadline deadline) {
+        log.info("Computing search facets - criteria: {}", criteria);
+        SearchResultCache.Key key = cacheKey("search", new SearchPageRequest(0, 0, null, true), criteria.getAgentEmail(),
+                criteria.getApplicationNumber(), criteria.getOwnerType(), criteria.getFirstName(), criteria.getLastName(),
+                criteria.getCompanyName(), criteria.getPlanGUID(), Objects.toString(criteria.getModifiedFrom(), null),
+                Objects.toString(criteria.getModifiedTo(), null)).forFacets();
+        return resultCache.facets(key, () -> agentIdentity.findClientGUID(criteria.getAgentEmail()),
+                () -> timed(() -> executeFacets(builder(criteria), deadline), deadline));
+    }
+
+    /**
+     * Filtered, unpaged query behind search
+     * @return The query, or null if nothing can match
+     */
+    public SearchQuery query(SearchCriteria criteria) {
+        return query(criteria, null);
+    }
+
+    /**
+     * @param columns The row columns to select, or null for all of them
+     */
+    public SearchQuery query(SearchCriteria criteria, Set<SearchQueryBuilder.Column> columns) {
+        return query(criteria, columns, false);
+    }
+
+    /**
+     * @param windowTotal Select the total number of matching rows on every row, as COUNT(*) OVER()
+     */
+    private SearchQuery query(SearchCriteria criteria, Set<SearchQueryBuilder.Column> columns, boolean windowTotal) {
+        SearchQueryBuilder builder = builder(criteria);
+        if (builder == null) {
+            return null;
         }
-        
-        return jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+        if (columns != null) {
+            builder.select(columns);
+        }
+        if (windowTotal) {
+            builder.windowTotal();
+        }
+        return explained(builder.build());
     }
 
-    public List<Map<String, Object>> searchByIndividualOwner(String firstName, String lastName, int page, int size, String agentEmail) {
-        log.info("Searching for applications with individual owner - firstName: {}, lastName: {} for agent: {} (page: {}, size: {})", 
-                firstName, lastName, agentEmail, page, size);
+    /**
+     * Number of applications matching the criteria. Unfiltered and per-agent totals come from the counter table.
+     */
+    public long count(SearchCriteria criteria, ParallelQueryExecutor.Deadline deadline) {
+        if (!criteria.hasFilters()) {
+            if (!SearchCriteria.present(criteria.getAgentEmail())) {
+                return applicationCounters.countAll();
+            }
+            String agentClientGUID = agentIdentity.findClientGUID(criteria.getAgentEmail());
+            return agentClientGUID != null ? applicationCounters.countAgent(agentClientGUID) : 0;
+        }
+        SearchQueryBuilder builder = builder(criteria);
+        if (builder == null) {
+            return 0;
+        }
+        SearchQuery count = explained(builder.buildCount());
+        Long total = jdbcTemplate.query(statement(count.sql(), count.params(), deadline),
+                rs -> rs.next() ? rs.getLong(1) : 0L);
+        return total != null ? total : 0;
+    }
 
-        String sql;
-        List<Object> params = new ArrayList<>();
+    /**
+     * One search filter with its estimated number of matching rows
+     * @param estimate Rows matching, or Long.MAX_VALUE when nothing cheap can tell
+     * @param seek Narrows the driving table to this filter's matches; returns false if that proves nothing matches
+     */
+    private record Filter(String name, long estimate, Consumer<SearchQueryBuilder> predicate,
+                          Predicate<SearchQueryBuilder> seek) {
+    }
+    
+    /**
+     * Plan a search: estimate each filter's selectivity from the search index, the counters and
+     * SearchStatistics, add the predicates most selective first, and let the most selective one
+     * drive the query, either as primary keys resolved by the search index or as an index seek.
+     * Only the live sources, the search index and the agent counter, can end a search on an estimate
+     * of 0; SearchStatistics is a periodic snapshot, so its numbers only order the filters.
+     * The search index only estimates or resolves keys while it is current with the change log;
+     * otherwise its filters are plain LIKE scans, so rows it has not seen yet are still found.
+     * @return The builder, or null if the agent has no applications or a live estimate already shows nothing matches
+     */
+    private SearchQueryBuilder builder(SearchCriteria criteria) {
+        boolean summary = applicationSummary.isEnabled();
+        boolean indexed = searchIndex.isCurrent();
+        List<Filter> filters = new ArrayList<>();
         
-        params.add(firstName != null && !firstName.isEmpty() ? "%" + firstName + "%" : "%");
-        params.add(lastName != null && !lastName.isEmpty() ? "%" + lastName + "%" : "%");
+        String applicationNumber = criteria.getApplicationNumber();
+        if (SearchCriteria.present(applicationNumber)) {
+            filters.add(new Filter("number",
+                    indexed ? known(searchIndex.estimateApplications(applicationNumber)) : Long.MAX_VALUE,
+                    b -> b.applicationNumberLike(applicationNumber),
+                    b -> seekKeys(searchIndex.findApplications(applicationNumber), b::applicationIn)));
+        }
         
-        if (agentEmail != null && !agentEmail.isEmpty()) {
-            User agent = userRepository.findByEmail(agentEmail).orElse(null);
-            if (agent != null) {
-                String agentFirstName = agent.getName().split(" ")[0];
-                String agentLastName = agent.getName().contains(" ") 
-                    ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-                    : "";
-                    
-                sql = """
-                    SELECT 
-                        af.ApplicationFormNumber as applicationNumber, 
-                        c.FirstName as firstName, 
-                        c.LastName as lastName,
-                        c.DateOfBirth as dateOfBirth,
-                        CONCAT(COALESCE(ad.AddressLine1, ''), 
-                              CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                              CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                              CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                        af.LastModifiedDate as lastModifiedDate,
-                        r.StatusCode as status,
-                        '01' as ownerType,
-                        CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                    LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                    JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '01'
-                    AND (c.FirstName LIKE ? OR c.LastName LIKE ?)
-                    AND agentC.FirstName = ? AND agentC.LastName = ?
-                    ORDER BY af.LastModifiedDate DESC
-                    LIMIT ? OFFSET ?
-                """;
-                params.add(agentFirstName);
-                params.add(agentLastName);
-            } else {
-                sql = """
-                    SELECT 
-                        af.ApplicationFormNumber as applicationNumber, 
-                        c.FirstName as firstName, 
-                        c.LastName as lastName,
-                        c.DateOfBirth as dateOfBirth,
-                        CONCAT(COALESCE(ad.AddressLine1, ''), 
-                              CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                              CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                              CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                        af.LastModifiedDate as lastModifiedDate,
-                        r.StatusCode as status,
-                        '01' as ownerType,
-                        CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                    LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                    LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '01'
-                    AND (c.FirstName LIKE ? OR c.LastName LIKE ?)
-                    ORDER BY af.LastModifiedDate DESC
-                    LIMIT ? OFFSET ?
-                """;
-            }
-        } else {
-            sql = """
-                SELECT 
-                    af.ApplicationFormNumber as applicationNumber, 
-                    c.FirstName as firstName, 
-                    c.LastName as lastName,
-                    c.DateOfBirth as dateOfBirth,
-                    CONCAT(COALESCE(ad.AddressLine1, ''), 
-                          CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                          CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                          CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                    af.LastModifiedDate as lastModifiedDate,
-                    r.StatusCode as status,
-                    '01' as ownerType,
-                    CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                FROM frapplicationform af
-                JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                WHERE r.RoleCode = '01' 
-                AND c.TypeCode = '01'
-                AND (c.FirstName LIKE ? OR c.LastName LIKE ?)
-                ORDER BY af.LastModifiedDate DESC
-                LIMIT ? OFFSET ?
-            """;
+        String firstName = criteria.getFirstName();
+        String lastName = criteria.getLastName();
+        if (SearchCriteria.present(firstName) || SearchCriteria.present(lastName)) {
+            filters.add(new Filter("ownerName",
+                    indexed ? known(searchIndex.estimateIndividualClients(firstName, lastName)) : Long.MAX_VALUE,
+                    b -> b.ownerNameLike(firstName, lastName),
+                    b -> seekKeys(searchIndex.findIndividualClients(firstName, lastName), b::ownerIn)));
         }
         
-        params.add(size);
-        params.add(page * size);
-
-        return executeQuery(sql, params.toArray());
-    }
-
-    public long countByIndividualOwner(String firstName, String lastName, String agentEmail) {
-        String sql;
-        List<Object> params = new ArrayList<>();
+        String companyName = criteria.getCompanyName();
+        if (SearchCriteria.present(companyName)) {
+            filters.add(new Filter("companyName",
+                    indexed ? known(searchIndex.estimateCorporateClients(companyName)) : Long.MAX_VALUE,
+                    b -> b.companyNameLike(companyName),
+                    b -> seekKeys(searchIndex.findCorporateClients(companyName), b::ownerIn)));
+        }
         
-        params.add(firstName != null && !firstName.isEmpty() ? "%" + firstName + "%" : "%");
-        params.add(lastName != null && !lastName.isEmpty() ? "%" + lastName + "%" : "%");
+        String planGUID = criteria.getPlanGUID();
+        if (SearchCriteria.present(planGUID)) {
+            filters.add(new Filter("plan", hint(searchStatistics.estimatePlan(planGUID)),
+                    b -> b.planIs(planGUID),
+                    b -> seekIndex(b, summary ? "IX_application_summary_Plan" : "IX_frapplicationform_Plan")));
+        }
         
-        if (agentEmail != null && !agentEmail.isEmpty()) {
-            User agent = userRepository.findByEmail(agentEmail).orElse(null);
-            if (agent != null) {
-                String agentFirstName = agent.getName().split(" ")[0];
-                String agentLastName = agent.getName().contains(" ") 
-                    ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-                    : "";
-                    
-                sql = """
-                    SELECT COUNT(*)
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '01'
-                    AND (c.FirstName LIKE ? OR c.LastName LIKE ?)
-                    AND agentC.FirstName = ? AND agentC.LastName = ?
-                """;
-                params.add(agentFirstName);
-                params.add(agentLastName);
-            } else {
-                sql = """
-                    SELECT COUNT(*)
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '01'
-                    AND (c.FirstName LIKE ? OR c.LastName LIKE ?)
-                """;
+        LocalDate modifiedFrom = criteria.getModifiedFrom();
+        LocalDate modifiedTo = criteria.getModifiedTo();
+        if (modifiedFrom != null || modifiedTo != null) {
+            filters.add(new Filter("modified", hint(searchStatistics.estimateModified(modifiedFrom, modifiedTo)),
+                    b -> b.modifiedBetween(modifiedFrom, modifiedTo),
+                    b -> seekIndex(b, summary ? "IX_application_summary_LastModified" : "IX_frapplicationform_LastModified")));
+        }
+        
+        if (SearchCriteria.present(criteria.getAgentEmail())) {
+            String agentClientGUID = agentIdentity.findClientGUID(criteria.getAgentEmail());
+            if (agentClientGUID == null) {
+                return null;
             }
-        } else {
-            sql = """
-                SELECT COUNT(*)
-                FROM frapplicationform af
-                JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-                JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                WHERE r.RoleCode = '01' 
-                AND c.TypeCode = '01'
-                AND (c.FirstName LIKE ? OR c.LastName LIKE ?)
-            """;
+            filters.add(new Filter("agent", applicationCounters.countAgent(agentClientGUID),
+                    b -> b.agent(agentClientGUID),
+                    b -> summary ? seekIndex(b, "IX_application_summary_Agent") : true));
         }
         
-        return jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
-    }
-
-    public List<Map<String, Object>> searchByCorporateOwner(String companyName, int page, int size, String agentEmail) {
-        log.info("Searching for applications with corporate owner - companyName: {} for agent: {} (page: {}, size: {})", 
-                companyName, agentEmail, page, size);
-
-        String sql;
-        List<Object> params = new ArrayList<>();
+        // Owner type alone is never selective enough to drive the query
+        String ownerTypeCode = criteria.ownerTypeCode();
+        if (ownerTypeCode != null) {
+            filters.add(new Filter("ownerType", Long.MAX_VALUE, b -> b.ownerType(ownerTypeCode), b -> true));
+        }
         
-        params.add("%" + companyName + "%");
+        filters.sort(Comparator.comparingLong(Filter::estimate));
+        if (!filters.isEmpty() && filters.get(0).estimate() == 0) {
+            return null;
+        }
         
-        if (agentEmail != null && !agentEmail.isEmpty()) {
-            User agent = userRepository.findByEmail(agentEmail).orElse(null);
-            if (agent != null) {
-                String agentFirstName = agent.getName().split(" ")[0];
-                String agentLastName = agent.getName().contains(" ") 
-                    ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-                    : "";
-                    
-                sql = """
-                    SELECT 
-                        af.ApplicationFormNumber as applicationNumber, 
-                        c.CompanyName as companyName,
-                        CONCAT(COALESCE(ad.AddressLine1, ''), 
-                              CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                              CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                              CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                        af.LastModifiedDate as lastModifiedDate,
-                        r.StatusCode as status,
-                        '02' as ownerType,
-                        CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                    LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                    JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '02'
-                    AND c.CompanyName LIKE ?
-                    AND agentC.FirstName = ? AND agentC.LastName = ?
-                    ORDER BY af.LastModifiedDate DESC
-                    LIMIT ? OFFSET ?
-                """;
-                params.add(agentFirstName);
-                params.add(agentLastName);
-            } else {
-                sql = """
-                    SELECT 
-                        af.ApplicationFormNumber as applicationNumber, 
-                        c.CompanyName as companyName,
-                        CONCAT(COALESCE(ad.AddressLine1, ''), 
-                              CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                              CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                              CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                        af.LastModifiedDate as lastModifiedDate,
-                        r.StatusCode as status,
-                        '02' as ownerType,
-                        CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                    LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                    LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '02'
-                    AND c.CompanyName LIKE ?
-                    ORDER BY af.LastModifiedDate DESC
-                    LIMIT ? OFFSET ?
-                """;
+        SearchQueryBuilder builder = SearchQueryBuilder.from(summary);
+        for (Filter filter : filters) {
+            filter.predicate().accept(builder);
+        }
+        if (!filters.isEmpty() && filters.get(0).estimate() < Long.MAX_VALUE) {
+            Filter driver = filters.get(0);
+            long applications = searchStatistics.applications();
+            // An index seek only pays off when it skips most of the table
+            if (applications < 0 || driver.estimate() <= applications * seekMaxFraction) {
+                log.debug("Search driven by {} (estimated {} of {} rows)", driver.name(), driver.estimate(), applications);
+                if (!driver.seek().test(builder)) {
+                    return null;
+                }
             }
-        } else {
-            sql = """
-                SELECT 
-                    af.ApplicationFormNumber as applicationNumber, 
-                    c.CompanyName as companyName,
-                    CONCAT(COALESCE(ad.AddressLine1, ''), 
-                          CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                          CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                          CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                    af.LastModifiedDate as lastModifiedDate,
-                    r.StatusCode as status,
-                    '02' as ownerType,
-                    CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-                FROM frapplicationform af
-                JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-                JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-                LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-                LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                WHERE r.RoleCode = '01' 
-                AND c.TypeCode = '02'
-                AND c.CompanyName LIKE ?
-                ORDER BY af.LastModifiedDate DESC
-                LIMIT ? OFFSET ?
-            """;
         }
-        
-        params.add(size);
-        params.add(page * size);
-
-        return executeQuery(sql, params.toArray());
+        return builder;
+    }
+    
+    private static long known(long estimate) {
+        return estimate < 0 ? Long.MAX_VALUE : estimate;
+    }
+    
+    /**
+     * A SearchStatistics estimate, which may predate the rows it would count, so a 0 still orders first but never
+     * proves the search empty
+     */
+    private static long hint(long estimate) {
+        return estimate == 0 ? 1 : known(estimate);
+    }
+    
+    private static boolean seekKeys(List<String> keys, Consumer<List<String>> restrict) {
+        if (keys == null) {
+            return true;
+        }
+        if (keys.isEmpty()) {
+            return false;
+        }
+        restrict.accept(keys);
+        return true;
+    }
+    
+    private static boolean seekIndex(SearchQueryBuilder builder, String index) {
+        builder.forceIndex(index);
+        return true;
+    }
+    
+    /**
+     * Log the query shape, and with search.log-plans the EXPLAIN output the first time each shape is seen
+     */
+    private SearchQuery explained(SearchQuery query) {
+        log.debug("Search query shape: {}", query.shape());
+        if (logPlans && explainedShapes.add(query.shape())) {
+            try {
+                List<String> plan = jdbcTemplate.query("EXPLAIN " + query.sql(), (rs, rowNum) ->
+                        rs.getString("table") + " type=" + rs.getString("type") + " key=" + rs.getString("key")
+                                + " rows=" + rs.getString("rows") + " extra=" + rs.getString("Extra"),
+                        query.params().toArray());
+                log.info("Search plan for {}:\n  {}", query.shape(), String.join("\n  ", plan));
+            } catch (Exception e) {
+                log.warn("Could not explain search query {}: {}", query.shape(), e.getMessage());
+            }
+        }
+        return query;
     }
 
-    public long countByCorporateOwner(String companyName, String agentEmail) {
-        String sql;
-        List<Object> params = new ArrayList<>();
-        
-        params.add("%" + companyName + "%");
+    /**
+     * Run a search query with the shared ordering and the requested page appended.
+     * Cursor requests seek past the last row of the previous page on (LastModifiedDate, ApplicationFormGUID),
+     * so the cost of a page does not depend on how deep it is. One row past the page is fetched and dropped,
+     * so nextCursor is only set when another row exists.
+     * Queries built with a window total get it from COUNT(*) OVER() in the same statement; the separate
+     * count query only runs when the window cannot answer (cursor pages, or an offset past the last row).
+     */
+    private SearchResult executeQuery(SearchQuery query, SearchPageRequest pageRequest,
+                                      Supplier<SearchResultCache.Total> countQuery, ParallelQueryExecutor.Deadline deadline) {
+        if (query == null) {
+            return emptyResult(pageRequest);
+        }
+        String alias = query.alias();
+        SearchCursor cursor = pageRequest.getCursor();
+        boolean windowTotal = query.windowTotal() && pageRequest.isIncludeTotal() && cursor == null;
+        StringBuilder pagedSql = new StringBuilder(query.sql());
+        List<Object> args = new ArrayList<>(query.params());
         
-        if (agentEmail != null && !agentEmail.isEmpty()) {
-            User agent = userRepository.findByEmail(agentEmail).orElse(null);
-            if (agent != null) {
-                String agentFirstName = agent.getName().split(" ")[0];
-                String agentLastName = agent.getName().contains(" ") 
-                    ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-                    : "";
-                    
-                sql = """
-                    SELECT COUNT(*)
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-                    JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '02'
-                    AND c.CompanyName LIKE ?
-                    AND agentC.FirstName = ? AND agentC.LastName = ?
-                """;
-                params.add(agentFirstName);
-                params.add(agentLastName);
+        if (cursor != null) {
+            if (cursor.getLastModifiedDate() != null) {
+                pagedSql.append("""
+                    AND (af.LastModifiedDate < ?
+                         OR (af.LastModifiedDate = ? AND af.ApplicationFormGUID < ?)
+                         OR af.LastModifiedDate IS NULL)
+                    """.replace("af.", alias + "."));
+                args.add(cursor.getLastModifiedDate());
+                args.add(cursor.getLastModifiedDate());
             } else {
-                sql = """
-                    SELECT COUNT(*)
-                    FROM frapplicationform af
-                    JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-                    JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                    WHERE r.RoleCode = '01' 
-                    AND c.TypeCode = '02'
-                    AND c.CompanyName LIKE ?
-                """;
+                pagedSql.append(" AND " + alias + ".LastModifiedDate IS NULL AND " + alias + ".ApplicationFormGUID < ?\n");
             }
-        } else {
-            sql = """
-                SELECT COUNT(*)
-                FROM frapplicationform af
-                JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-                JOIN frclient c ON r.ClientGUID = c.ClientGUID
-                WHERE r.RoleCode = '01' 
-                AND c.TypeCode = '02'
-                AND c.CompanyName LIKE ?
-            """;
+            args.add(cursor.getApplicationFormGUID());
         }
         
-        return jdbcTemplate.queryForObject(sql, Long.class, params.toArray());
+        pagedSql.append(" ORDER BY " + alias + ".LastModifiedDate DESC, " + alias + ".ApplicationFormGUID DESC LIMIT ?");
+        args.add(pageRequest.getSize() + 1);
+        if (cursor == null) {
+            pagedSql.append(" OFFSET ?");
+            args.add(pageRequest.getPage() * pageRequest.getSize());
+        }
+        
+        // Cursor pages need the separate count; it does not depend on the page, so both run at once
+        long[] windowCount = new long[1];
+        ApplicationSearchRowMapper rowMapper = query.rowMapper();
+        List<ApplicationSearchRow> rows;
+        SearchResultCache.Total cursorTotal = null;
+        try (ParallelQueryExecutor.Scope scope = parallelQueries.open(deadline)) {
+            ParallelQueryExecutor.Subtask<List<ApplicationSearchRow>> pageTask = scope.fork(() -> jdbcTemplate.query(
+                    statement(pagedSql.toString(), args, deadline), (rs, rowNum) -> {
+                        if (windowTotal && rowNum == 0) {
+                            windowCount[0] = rs.getLong("totalCount");
+                        }
+                        return rowMapper.mapRow(rs, rowNum);
+                    }));
+            ParallelQueryExecutor.Subtask<SearchResultCache.Total> countTask =
+                    cursor != null && pageRequest.isIncludeTotal() ? scope.fork(countQuery::get) : null;
+            scope.join();
+            rows = pageTask.get();
+            if (countTask != null) {
+                cursorTotal = countTask.get();
+            }
+        }
+        
+        String nextCursor = null;
+        if (rows.size() > pageRequest.getSize()) {
+            rows = new ArrayList<>(rows.subList(0, pageRequest.getSize()));
+            nextCursor = rows.get(rows.size() - 1).toCursor().encode();
+        }
+        
+        Long totalItems = null;
+        Boolean totalExact = null;
+        if (windowTotal && !rows.isEmpty()) {
+            totalItems = windowCount[0];
+            totalExact = true;
+        } else if (windowTotal && pageRequest.getPage() == 0) {
+            totalItems = 0L;
+            totalExact = true;
+        } else if (pageRequest.isIncludeTotal()) {
+            SearchResultCache.Total total = cursorTotal != null ? cursorTotal : countQuery.get();
+            totalItems = total.value();
+            totalExact = total.exact();
+        }
+        return new SearchResult(rows, nextCursor, totalItems, totalExact);
+    }
+    
+    private SearchFacets executeFacets(SearchQueryBuilder builder, ParallelQueryExecutor.Deadline deadline) {
+        if (builder == null) {
+            return SearchFacets.empty();
+        }
+        SearchQuery query = explained(builder.buildFacets());
+        Map<String, SearchFacets.Bucket> agents = new LinkedHashMap<>();
+        Map<String, SearchFacets.Bucket> plans = new LinkedHashMap<>();
+        Map<String, SearchFacets.Bucket> statuses = new LinkedHashMap<>();
+        Map<String, SearchFacets.Bucket> months = new LinkedHashMap<>();
+        long[] total = new long[1];
+        try (ParallelQueryExecutor.Scope scope = parallelQueries.open(deadline)) {
+            scope.fork(() -> {
+                jdbcTemplate.query(statement(query.sql(), query.params(), deadline), (RowCallbackHandler) rs -> {
+                    long count = rs.getLong("total");
+                    total[0] += count;
+                    addToBucket(agents, rs.getString("agentClientGUID"), rs.getString("agentName"), count);
+                    addToBucket(plans, rs.getString("planGUID"), rs.getString("planGUID"), count);
+                    addToBucket(statuses, rs.getString("status"), rs.getString("status"), count);
+                    addToBucket(months, rs.getString("month"), rs.getString("month"), count);
+                });
+                return null;
+            });
+            scope.join();
+        }
+        Comparator<SearchFacets.Bucket> byCount = Comparator.comparingLong(SearchFacets.Bucket::count).reversed();
+        Comparator<SearchFacets.Bucket> byMonth = Comparator.comparing(SearchFacets.Bucket::value,
+                Comparator.nullsLast(Comparator.reverseOrder()));
+        return new SearchFacets(total[0], sorted(agents, byCount), sorted(plans, byCount),
+                sorted(statuses, byCount), sorted(months, byMonth));
     }
 
-    public List<Map<String, Object>> getAllApplications(int page, int size) {
-        log.info("Retrieving all applications (page: {}, size: {})", page, size);
-
-        String sql = """
-            SELECT 
-                af.ApplicationFormNumber as applicationNumber, 
-                c.FirstName as firstName, 
-                c.LastName as lastName, 
-                c.CompanyName as companyName,
-                c.DateOfBirth as dateOfBirth,
-                CONCAT(COALESCE(ad.AddressLine1, ''), 
-                      CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                      CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                      CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                af.LastModifiedDate as lastModifiedDate,
-                r.StatusCode as status,
-                c.TypeCode as ownerType,
-                CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-            FROM frapplicationform af
-            JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-            JOIN frclient c ON r.ClientGUID = c.ClientGUID
-            LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-            LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-            LEFT JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-            LEFT JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-            WHERE r.RoleCode = '01'
-            ORDER BY af.LastModifiedDate DESC
-            LIMIT ? OFFSET ?
-        """;
-
-        return executeQuery(sql, size, page * size);
+    private static void addToBucket(Map<String, SearchFacets.Bucket> buckets, String value, String label, long count) {
+        buckets.merge(Objects.toString(value, ""), new SearchFacets.Bucket(value, label, count),
+                (a, b) -> new SearchFacets.Bucket(a.value(), a.label(), a.count() + b.count()));
     }
 
-    public long countAllApplications() {
-        String sql = """
-            SELECT COUNT(*)
-            FROM frapplicationform af
-            JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID
-            WHERE r.RoleCode = '01'
-        """;
-        
-        return jdbcTemplate.queryForObject(sql, Long.class);
+    private static List<SearchFacets.Bucket> sorted(Map<String, SearchFacets.Bucket> buckets,
+                                                    Comparator<SearchFacets.Bucket> order) {
+        List<SearchFacets.Bucket> list = new ArrayList<>(buckets.values());
+        list.sort(order);
+        return list;
     }
 
-    private List<Map<String, Object>> executeQuery(String sql, Object... args) {
+    /**
+     * Stream every row of a search query in the search ordering, without paging or counting.
+     * MySQL Connector/J only streams for a forward-only, read-only statement with fetch size
+     * Integer.MIN_VALUE; any other statement buffers the whole result set in memory.
+     * @param query The query, or null for an empty result
+     * @param sink Receives each row as it is read
+     * @return The number of rows streamed
+     */
+    public long streamQuery(SearchQuery query, Consumer<ApplicationSearchRow> sink) {
+        if (query == null) {
+            return 0;
+        }
+        String sql = query.sql() + " ORDER BY " + query.alias() + ".LastModifiedDate DESC, "
+                + query.alias() + ".ApplicationFormGUID DESC";
+        int[] rowNum = new int[1];
+        ApplicationSearchRowMapper rowMapper = query.rowMapper();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            new ArgumentPreparedStatementSetter(query.params().toArray()).setValues(ps);
+            return ps;
+        }, (RowCallbackHandler) rs -> sink.accept(rowMapper.mapRow(rs, rowNum[0]++)));
+        return rowNum[0];
+    }
+    
+    /**
+     * Serve a page from the result cache, computing it on a miss. Failed searches come back empty and are not cached.
+     */
+    private SearchResult cachedSearch(SearchResultCache.Key key, String agentEmail, SearchPageRequest pageRequest,
+                                      Supplier<SearchResult> search) {
         try {
-            return jdbcTemplate.query(sql, (rs, rowNum) -> {
-                Map<String, Object> result = new HashMap<>();
-                result.put("applicationNumber", rs.getString("applicationNumber"));
-                
-                String ownerType = rs.getString("ownerType");
-                if (ownerType == null) {
-                    ownerType = "01"; 
-                }
-                
-                if (ownerType.equals("01")) { // Individual
-                    result.put("ownerName", rs.getString("firstName") + " " + rs.getString("lastName"));
-                    result.put("dateOfBirth", rs.getDate("dateOfBirth") != null ? 
-                        rs.getDate("dateOfBirth").toString() : null);
-                } else { 
-                    result.put("companyName", rs.getString("companyName"));
-                }
-                
-                result.put("primaryAddress", rs.getString("primaryAddress"));
-                
-                if (rs.getTimestamp("lastModifiedDate") != null) {
-                    java.sql.Date date = new java.sql.Date(rs.getTimestamp("lastModifiedDate").getTime());
-                    result.put("lastModifiedDate", date.toString());
-                } else {
-                    result.put("lastModifiedDate", null);
-                }
-                
-                String statusCode = rs.getString("status");
-                result.put("status", mapStatusCode(statusCode));
-                result.put("ownerType", ownerType);
-                result.put("createdBy", rs.getString("createdBy"));
-                
-                return result;
-            }, args);
+            return resultCache.get(key, () -> agentIdentity.findClientGUID(agentEmail), search);
+        } catch (ParallelQueryExecutor.DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error executing search query: {}", e.getMessage(), e);
-            return new ArrayList<>();
+            return emptyResult(pageRequest);
         }
     }
     
-    private String mapStatusCode(String statusCode) {
-        return switch (statusCode) {
-            case "01" -> "In Progress";
-            case "02" -> "Submitted";
-            case "03" -> "In Review";
-            case "04" -> "Approved";
-            case "05" -> "Declined";
-            default -> "Unknown";
-        };
-    }
-
     /**
-     * Get all applications for the current logged-in user 
+     * Filtered totals are cached across pages; the unfiltered and per-agent ones come from the counter table instead
      */
-    public List<Map<String, Object>> getApplicationsByAgent(String agentEmail, int page, int size) {
-        log.info("Getting applications for agent: {} (page: {}, size: {})", agentEmail, page, size);
-        
-        if (agentEmail == null || agentEmail.isEmpty()) {
-            return getAllApplications(page, size);
-        }
-        
-        User agent = userRepository.findByEmail(agentEmail).orElse(null);
-        if (agent == null) {
-            return new ArrayList<>();
-        }
-        
-        String firstName = agent.getName().split(" ")[0];
-        String lastName = agent.getName().contains(" ") 
-            ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-            : "";
-            
-        String sql = """
-            SELECT 
-                af.ApplicationFormNumber as applicationNumber, 
-                c.FirstName as firstName, 
-                c.LastName as lastName, 
-                c.CompanyName as companyName,
-                c.DateOfBirth as dateOfBirth,
-                CONCAT(COALESCE(ad.AddressLine1, ''), 
-                      CASE WHEN ad.City IS NOT NULL THEN CONCAT(', ', ad.City) ELSE '' END,
-                      CASE WHEN ad.StateCode IS NOT NULL THEN CONCAT(', ', ad.StateCode) ELSE '' END,
-                      CASE WHEN ad.ZipCode IS NOT NULL THEN CONCAT(' ', ad.ZipCode) ELSE '' END) as primaryAddress,
-                af.LastModifiedDate as lastModifiedDate,
-                r.StatusCode as status,
-                c.TypeCode as ownerType,
-                CONCAT(agentC.FirstName, ' ', agentC.LastName) as createdBy
-            FROM frapplicationform af
-            JOIN frrole r ON af.ApplicationFormGUID = r.ApplicationFormGUID AND r.RoleCode = '01'
-            JOIN frclient c ON r.ClientGUID = c.ClientGUID
-            LEFT JOIN fraddress a ON c.ClientGUID = a.ClientGUID AND a.TypeCode = '01'
-            LEFT JOIN fraddressdetails ad ON a.AddressGUID = ad.AddressGUID
-            JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-            JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-            WHERE agentC.FirstName = ? AND agentC.LastName = ?
-            ORDER BY af.LastModifiedDate DESC
-            LIMIT ? OFFSET ?
-        """;
-        
-        return executeQuery(sql, firstName, lastName, size, page * size);
+    private Supplier<SearchResultCache.Total> cachedCount(SearchResultCache.Key key, Supplier<Long> count) {
+        return () -> resultCache.count(key.forTotal(), () -> agentIdentity.findClientGUID(key.agentEmail()), count);
+    }
+    
+    private SearchResultCache.Key cacheKey(String kind, SearchPageRequest pageRequest, String agentEmail, String... filter) {
+        return new SearchResultCache.Key(kind, Arrays.asList(filter), agentEmail, pageRequest.getPage(),
+                pageRequest.getSize(), pageRequest.getCursor(), pageRequest.isIncludeTotal());
+    }
+    
+    private SearchResult emptyResult(SearchPageRequest pageRequest) {
+        return new SearchResult(new ArrayList<>(), null, pageRequest.isIncludeTotal() ? 0L : null,
+                pageRequest.isIncludeTotal() ? true : null);
     }
     
     /**
-     * Count all applications for the current logged-in user
+     * A statement that MySQL cancels once the request's deadline passes, so a query abandoned by its
+     * scope does not keep running on the server
      */
-    public long countApplicationsByAgent(String agentEmail) {
-        if (agentEmail == null || agentEmail.isEmpty()) {
-            return countAllApplications();
-        }
-        
-        User agent = userRepository.findByEmail(agentEmail).orElse(null);
-        if (agent == null) {
-            return 0;
+    private static PreparedStatementCreator statement(String sql, List<Object> params, ParallelQueryExecutor.Deadline deadline) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            new ArgumentPreparedStatementSetter(params.toArray()).setValues(ps);
+            ps.setQueryTimeout(deadline.remainingSeconds());
+            return ps;
+        };
+    }
+
+    /**
+     * Report a statement cancelled by its query timeout as the deadline it enforces
+     */
+    private static <T> T timed(Supplier<T> query, ParallelQueryExecutor.Deadline deadline) {
+        try {
+            return query.get();
+        } catch (QueryTimeoutException e) {
+            throw deadline.exceeded();
         }
-        
-        String firstName = agent.getName().split(" ")[0];
-        String lastName = agent.getName().contains(" ") 
-            ? agent.getName().substring(agent.getName().indexOf(" ") + 1) 
-            : "";
-            
-        String sql = """
-            SELECT COUNT(*)
-            FROM frapplicationform af
-            JOIN frrole agentR ON af.ApplicationFormGUID = agentR.ApplicationFormGUID AND agentR.RoleCode = '03'
-            JOIN frclient agentC ON agentR.ClientGUID = agentC.ClientGUID
-            WHERE agentC.FirstName = ? AND agentC.LastName = ?
-        """;
-        
-        return jdbcTemplate.queryForObject(sql, Long.class, firstName, lastName);
     }
-} 
\ No newline at end of file
+
+    private static String ownerKey(String ownerName) {
+        return ownerName != null ? ownerName.toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -28,6 +28,7 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final AgentIdentityService agentIdentity;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -138,6 +139,7 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
         
+        agentIdentity.evict(user.getEmail());
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setRole(request.getRole());
@@ -169,6 +171,7 @@ public class UserService {
             throw new RuntimeException("Cannot delete your own account");
         }
         
+        userRepository.findById(id).ifPresent(user -> agentIdentity.evict(user.getEmail()));
         userRepository.deleteById(id);
     }
     
@@ -0,0 +1,39 @@
+package com.backend.api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApplicationSearchRowTest {
+
+    private static final ApplicationSearchRow ROW = new ApplicationSearchRow("APP-1", "guid-1", "Jane Doe",
+            "1980-01-31", null, "1 Main St", "2024-03-05", Timestamp.valueOf("2024-03-05 14:30:00"), "Submitted",
+            "01", "Agent Smith");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+
+    @Test
+    void writesEveryFieldWithoutAFilter() throws JsonProcessingException {
+        assertThat(objectMapper.writeValueAsString(ROW)).isEqualTo("{\"applicationNumber\":\"APP-1\","
+                + "\"ownerName\":\"Jane Doe\",\"dateOfBirth\":\"1980-01-31\",\"primaryAddress\":\"1 Main St\","
+                + "\"lastModifiedDate\":\"2024-03-05\",\"status\":\"Submitted\",\"ownerType\":\"01\","
+                + "\"createdBy\":\"Agent Smith\"}");
+    }
+
+    @Test
+    void writesOnlySelectedFieldsWithAFilter() throws JsonProcessingException {
+        String json = objectMapper.writer(new SimpleFilterProvider().addFilter(ApplicationSearchRow.FIELDS_FILTER,
+                        SimpleBeanPropertyFilter.filterOutAllExcept(Set.of("applicationNumber", "companyName", "status"))))
+                .writeValueAsString(ROW);
+
+        assertThat(json).isEqualTo("{\"applicationNumber\":\"APP-1\",\"status\":\"Submitted\"}");
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.api.premium;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CentsTest {
+
+    @Test
+    void convertsWholeCents() {
+        assertThat(Cents.of(new BigDecimal("100000"))).isEqualTo(10_000_000L);
+        assertThat(Cents.of(new BigDecimal("1.500"))).isEqualTo(150L);
+        assertThat(Cents.of(new BigDecimal("-12.34"))).isEqualTo(-1234L);
+        assertThat(Cents.of(new BigDecimal("92233720368547758.07"))).isEqualTo(Long.MAX_VALUE);
+        assertThat(Cents.toDecimal(-1234)).isEqualTo(new BigDecimal("-12.34"));
+    }
+
+    @Test
+    void rejectsFractionsOfACentAndAmountsOutOfRange() {
+        assertThatThrownBy(() -> Cents.of(new BigDecimal("0.001"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Cents.of(new BigDecimal("-10.005"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Cents.of(new BigDecimal("92233720368547758.08"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void roundsHalvesAwayFromZero() {
+        assertThat(Cents.divideHalfUp(5, 10)).isEqualTo(1);
+        assertThat(Cents.divideHalfUp(-5, 10)).isEqualTo(-1);
+        assertThat(Cents.divideHalfUp(4, 10)).isZero();
+        assertThat(Cents.divideHalfUp(-4, 10)).isZero();
+        assertThat(Cents.divideHalfUp(15, 10)).isEqualTo(2);
+        assertThat(Cents.divideHalfUp(-15, 10)).isEqualTo(-2);
+        assertThat(Cents.divideHalfUp(26, 52)).isEqualTo(1);
+        assertThat(Cents.divideHalfUp(25, 52)).isZero();
+    }
+
+    @Test
+    void matchesBigDecimalAtTheEdgesOfTheLongRange() {
+        long[] dividends = {Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE / 2, Long.MAX_VALUE / 2 + 1,
+            -(Long.MAX_VALUE / 2) - 1, 0, 1, -1};
+        long[] divisors = {1, 2, 3, Long.MAX_VALUE, Long.MAX_VALUE - 1, RateTable.RATE_UNITS * 12};
+        for (long dividend : dividends) {
+            for (long divisor : divisors) {
+                assertThat(Cents.divideHalfUp(dividend, divisor))
+                        .as("%d / %d", dividend, divisor)
+                        .isEqualTo(expected(dividend, divisor));
+            }
+        }
+    }
+
+    @Test
+    void matchesBigDecimalOnRandomQuotients() {
+        Random random = new Random(23);
+        for (int n = 0; n < 100_000; n++) {
+            long dividend = random.nextBoolean() ? random.nextLong() : random.nextLong(-1_000_000_000L, 1_000_000_000L);
+            long divisor = switch (random.nextInt(3)) {
+                case 0 -> 1 + random.nextInt(1_000);
+                case 1 -> RateTable.RATE_UNITS * (1 + random.nextInt(12));
+                default -> 1 + random.nextLong(Long.MAX_VALUE);
+            };
+            assertThat(Cents.divideHalfUp(dividend, divisor))
+                    .as("%d / %d", dividend, divisor)
+                    .isEqualTo(expected(dividend, divisor));
+        }
+    }
+
+    private static long expected(long dividend, long divisor) {
+        return BigDecimal.valueOf(dividend).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
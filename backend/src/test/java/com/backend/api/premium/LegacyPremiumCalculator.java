@@ -0,0 +1,127 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The string-keyed premium calculation that {@link PremiumCalculator} replaced, kept as the reference its
+ * quotes are checked and benchmarked against. Every coverage is priced at face amount / 52 a year; the
+ * request is flattened into maps keyed by "&lt;GUID&gt;_&lt;Field&gt;" and the result built as a JsonNode.
+ */
+final class LegacyPremiumCalculator {
+
+    private static final String[] CLIENT_FIELDS = {
+        "ClientGUID", "ClientName", "CompanyName", "Gender", "Tobacco", "CountryCode", "StateCode", "DateOfBirth", "TypeCode"
+    };
+
+    private LegacyPremiumCalculator() {
+    }
+
+    static JsonNode calculatePremium(JsonNode requestJson) {
+        Map<String, List<String>> applicationLevelCollection = new HashMap<>();
+        Map<String, Map<String, List<String>>> coverageLevelCollection = new HashMap<>();
+        buildInputCollections(requestJson, applicationLevelCollection, coverageLevelCollection);
+        return buildJsonResult(calculate(applicationLevelCollection, coverageLevelCollection));
+    }
+
+    private static void buildInputCollections(JsonNode requestJson,
+                                              Map<String, List<String>> applicationLevelCollection,
+                                              Map<String, Map<String, List<String>>> coverageLevelCollection) {
+        String applicationFormGUID = requestJson.path("application").path("ApplicationFormGUID").asText();
+        addToCollection(applicationLevelCollection, "ApplicationFormGUID", applicationFormGUID);
+        addToCollection(applicationLevelCollection, "PlanGUID", requestJson.path("application").path("PlanGUID").asText());
+        addRoles(requestJson.path("application").path("roles"), applicationFormGUID, applicationLevelCollection);
+
+        JsonNode coverages = requestJson.path("application").path("coverages");
+        if (coverages.isArray()) {
+            for (JsonNode coverage : coverages) {
+                String coverageGUID = coverage.path("CoverageGUID").asText();
+                Map<String, List<String>> coverageMap = new HashMap<>();
+                JsonNode details = coverage.path("coveragedetails");
+
+                addToCollection(coverageMap, coverageGUID + "_CoverageDefinition", coverage.path("CoverageDefinitionGUID").asText());
+                addToCollection(coverageMap, coverageGUID + "_FaceAmount", details.path("FaceAmount").asText());
+                addToCollection(coverageMap, coverageGUID + "_TableRating", details.path("TableRating").asText());
+                addToCollection(coverageMap, coverageGUID + "_PermFlat", details.path("PermFlat").asText());
+                addToCollection(coverageMap, coverageGUID + "_TempFlat", details.path("TempFlat").asText());
+                addToCollection(coverageMap, coverageGUID + "_TempFlatDuration", details.path("TempFlatDuration").asText());
+                addToCollection(coverageMap, coverageGUID + "_UWClass", details.path("UWClass").asText());
+                addRoles(coverage.path("roles"), coverageGUID, coverageMap);
+
+                coverageLevelCollection.put(coverageGUID, coverageMap);
+            }
+        }
+    }
+
+    private static void addRoles(JsonNode roles, String prefix, Map<String, List<String>> collection) {
+        if (roles.isArray()) {
+            for (JsonNode roleNode : roles) {
+                addToCollection(collection, prefix + "_RoleGUID", roleNode.path("RoleGUID").asText());
+                addToCollection(collection, prefix + "_RoleCode", roleNode.path("RoleCode").asText());
+                JsonNode client = roleNode.path("client");
+                for (String field : CLIENT_FIELDS) {
+                    addToCollection(collection, prefix + "_" + field, client.path(field).asText());
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> calculate(Map<String, List<String>> appLevel,
+                                                 Map<String, Map<String, List<String>>> covLevel) {
+        Map<String, Object> result = new HashMap<>();
+        String applicationGUID = getFirst(appLevel, "ApplicationFormGUID");
+
+        BigDecimal totalAnnual = BigDecimal.ZERO;
+        BigDecimal totalMonthly = BigDecimal.ZERO;
+        BigDecimal totalQuarterly = BigDecimal.ZERO;
+        BigDecimal totalSemiAnnual = BigDecimal.ZERO;
+
+        for (Map.Entry<String, Map<String, List<String>>> entry : covLevel.entrySet()) {
+            String coverageGUID = entry.getKey();
+            String faceAmountStr = getFirst(entry.getValue(), coverageGUID + "_FaceAmount");
+            if (faceAmountStr.isEmpty()) {
+                continue;
+            }
+
+            BigDecimal faceAmount = new BigDecimal(faceAmountStr);
+            BigDecimal annual = faceAmount.divide(BigDecimal.valueOf(52), 2, RoundingMode.HALF_UP);
+            result.put(coverageGUID + "_premium", annual);
+
+            totalAnnual = totalAnnual.add(annual);
+            totalMonthly = totalMonthly.add(faceAmount.divide(BigDecimal.valueOf(624), 2, RoundingMode.HALF_UP));
+            totalQuarterly = totalQuarterly.add(faceAmount.divide(BigDecimal.valueOf(208), 2, RoundingMode.HALF_UP));
+            totalSemiAnnual = totalSemiAnnual.add(faceAmount.divide(BigDecimal.valueOf(104), 2, RoundingMode.HALF_UP));
+        }
+
+        result.put(applicationGUID + "_totalAnnualPremium", totalAnnual);
+        result.put(applicationGUID + "_totalMonthlyPremium", totalMonthly);
+        result.put(applicationGUID + "_totalQuarterlyPremium", totalQuarterly);
+        result.put(applicationGUID + "_totalSemiAnnualPremium", totalSemiAnnual);
+        return result;
+    }
+
+    private static String getFirst(Map<String, List<String>> map, String key) {
+        List<String> values = map.getOrDefault(key, List.of());
+        return values.isEmpty() ? "" : values.get(0);
+    }
+
+    private static JsonNode buildJsonResult(Map<String, Object> premiumResults) {
+        ObjectNode resultNode = new ObjectMapper().createObjectNode();
+        for (Map.Entry<String, Object> entry : premiumResults.entrySet()) {
+            resultNode.put(entry.getKey(), ((BigDecimal) entry.getValue()).doubleValue());
+        }
+        return resultNode;
+    }
+
+    private static void addToCollection(Map<String, List<String>> map, String key, String value) {
+        map.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+    }
+}
@@ -0,0 +1,159 @@
+package com.backend.api.premium;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The long-cents path must quote exactly what the BigDecimal path does, whenever it does not throw
+ */
+class PremiumCalculatorTest {
+
+    private static final PremiumApplication.Role INSURED = new PremiumApplication.Role("r1", "01",
+            new PremiumApplication.Client("c1", "Jane Doe", "", "F", "N", "US", "CA", "1980-01-31", "01"));
+
+    @Test
+    void centsMatchDecimalOnRandomApplications() {
+        Random random = new Random(23);
+        int priced = 0;
+        for (int n = 0; n < 5_000; n++) {
+            int coverages = random.nextInt(5);
+            String[] faces = new String[coverages];
+            int[] rates = new int[coverages];
+            for (int i = 0; i < coverages; i++) {
+                faces[i] = random.nextInt(10) > 0 ? randomFaceAmount(random) : null;
+                rates[i] = randomRate(random);
+            }
+            PremiumApplication application = application(faces);
+
+            PremiumQuote cents;
+            try {
+                cents = PremiumCalculator.calculateCents(application, rates);
+            } catch (ArithmeticException e) {
+                continue;
+            }
+            priced++;
+            assertSameQuote(cents, PremiumCalculator.calculateDecimal(application, rates), faces, rates);
+        }
+        // Most applications must exercise the long-cents path, not only the fallback
+        assertThat(priced).isGreaterThan(2_500);
+    }
+
+    @Test
+    void halfCentsRoundAwayFromZeroInEveryMode() {
+        // Unrated coverages divide face cents by 52 x payments a year; (2n + 1) x 26 x payments ends in half a cent
+        for (PaymentMode mode : PaymentMode.values()) {
+            long payments = mode.perYear();
+            for (long sign : new long[] {1, -1}) {
+                long faceCents = sign * 26 * payments * 7;
+                PremiumApplication application = application(Cents.toDecimal(faceCents).toPlainString());
+                int[] unrated = {RateTable.MISSING};
+
+                PremiumQuote cents = PremiumCalculator.calculateCents(application, unrated);
+
+                assertThat(mode.total(cents)).isEqualByComparingTo(Cents.toDecimal(sign * 4));
+                assertSameQuote(cents, PremiumCalculator.calculateDecimal(application, unrated), null, unrated);
+            }
+        }
+        // Rated coverages divide face cents x rate by RATE_UNITS x payments; a rate of half a unit does the same
+        int halfUnit = (int) (RateTable.RATE_UNITS / 2);
+        for (PaymentMode mode : PaymentMode.values()) {
+            long payments = mode.perYear();
+            for (long sign : new long[] {1, -1}) {
+                PremiumApplication application = application(Cents.toDecimal(sign * payments * 7).toPlainString());
+                int[] rated = {halfUnit};
+
+                PremiumQuote cents = PremiumCalculator.calculateCents(application, rated);
+
+                assertThat(mode.total(cents)).isEqualByComparingTo(Cents.toDecimal(sign * 4));
+                assertSameQuote(cents, PremiumCalculator.calculateDecimal(application, rated), null, rated);
+            }
+        }
+    }
+
+    @Test
+    void maxRatePricesInCentsWhileItFits() {
+        long maxFaceCents = Long.MAX_VALUE / Integer.MAX_VALUE;
+        int[] rates = {Integer.MAX_VALUE, Integer.MAX_VALUE};
+        PremiumApplication application = application(Cents.toDecimal(maxFaceCents).toPlainString(),
+                Cents.toDecimal(-maxFaceCents).toPlainString());
+
+        assertSameQuote(PremiumCalculator.calculateCents(application, rates),
+                PremiumCalculator.calculateDecimal(application, rates), null, rates);
+
+        PremiumApplication larger = application(Cents.toDecimal(maxFaceCents + 1).toPlainString());
+        assertThatThrownBy(() -> PremiumCalculator.calculateCents(larger, new int[] {Integer.MAX_VALUE}))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void overflowAndFractionsOfACentFallBackToDecimal() {
+        RateTable table = new RateTable(0, 120);
+        for (int age = 0; age <= 120; age++) {
+            table.set(age, 1, 0, 0, Integer.MAX_VALUE);
+        }
+        RateTables rateTables = mock(RateTables.class);
+        when(rateTables.find(any(), any())).thenReturn(table);
+        PremiumCalculator calculator = new PremiumCalculator();
+        ReflectionTestUtils.setField(calculator, "rateTables", rateTables);
+        int[] rates = {Integer.MAX_VALUE};
+
+        for (String face : new String[] {"90000000000000000", "-90000000000000000", "1000.005"}) {
+            PremiumApplication application = application(face);
+            assertThatThrownBy(() -> PremiumCalculator.calculateCents(application, rates))
+                    .isInstanceOf(ArithmeticException.class);
+
+            assertSameQuote(calculator.calculate(application), PremiumCalculator.calculateDecimal(application, rates),
+                    new String[] {face}, rates);
+        }
+    }
+
+    private static void assertSameQuote(PremiumQuote actual, PremiumQuote expected, String[] faces, int[] rates) {
+        assertThat(actual)
+                .as("faces %s, rates %s", Arrays.toString(faces), Arrays.toString(rates))
+                .usingRecursiveComparison()
+                .withComparatorForType(Comparator.naturalOrder(), BigDecimal.class)
+                .isEqualTo(expected);
+    }
+
+    private static PremiumApplication application(String... faceAmounts) {
+        List<PremiumApplication.Coverage> coverages = new ArrayList<>(faceAmounts.length);
+        for (int i = 0; i < faceAmounts.length; i++) {
+            BigDecimal face = faceAmounts[i] != null ? new BigDecimal(faceAmounts[i]) : null;
+            coverages.add(new PremiumApplication.Coverage("cov-" + i, "def-" + i,
+                    new PremiumApplication.Details(face, "", null, null, 0, "01"), List.of()));
+        }
+        return new PremiumApplication("app-1", "plan-1", List.of(INSURED), coverages);
+    }
+
+    private static String randomFaceAmount(Random random) {
+        long cents = switch (random.nextInt(4)) {
+            case 0 -> random.nextLong(-100_000_000L, 1_000_000_000L);
+            case 1 -> random.nextLong(Long.MAX_VALUE / Integer.MAX_VALUE);
+            case 2 -> random.nextLong();
+            default -> 26L * random.nextInt(1_000_000);
+        };
+        return Cents.toDecimal(cents).toPlainString();
+    }
+
+    private static int randomRate(Random random) {
+        return switch (random.nextInt(5)) {
+            case 0 -> RateTable.MISSING;
+            case 1 -> 0;
+            case 2 -> Integer.MAX_VALUE;
+            default -> random.nextInt(10_000_000);
+        };
+    }
+}
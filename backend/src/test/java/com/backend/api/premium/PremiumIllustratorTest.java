@@ -0,0 +1,124 @@
+package com.backend.api.premium;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PremiumIllustratorTest {
+
+    private static final int ISSUE_AGE = 40;
+    private static final int MAX_AGE = 45;
+
+    private final PremiumCalculator premiumCalculator = new PremiumCalculator();
+    private final PremiumIllustrator premiumIllustrator = new PremiumIllustrator();
+
+    @BeforeEach
+    void setUp() {
+        // Female non-smokers in class 01 pay 1,000.00 + 10.00 per year of attained age on a face of 100,000;
+        // the neighbouring rating keys hold other rates, so a wrong stride reads visibly wrong numbers
+        RateTable base = new RateTable(0, MAX_AGE);
+        for (int age = 0; age <= MAX_AGE; age++) {
+            base.set(age, 1, 0, 0, 100_000 + 1_000 * age);
+            base.set(age, 0, 0, 0, 900_000 + 1_000 * age);
+            base.set(age, 1, 1, 0, 700_000 + 1_000 * age);
+            base.set(age, 1, 0, 1, 500_000 + 1_000 * age);
+        }
+        RateTables rateTables = mock(RateTables.class);
+        when(rateTables.find("plan-1", "base-1")).thenReturn(base);
+        ReflectionTestUtils.setField(premiumCalculator, "rateTables", rateTables);
+        ReflectionTestUtils.setField(premiumIllustrator, "rateTables", rateTables);
+    }
+
+    @Test
+    void renewalPremiumsWalkTheAttainedAgeRatesUntilTheTableEnds() {
+        PremiumIllustration illustration = premiumIllustrator.illustrate(
+                application(details("100000", null, null, 0)), 10);
+
+        PremiumIllustration.CoverageIllustration base = illustration.coverages().get(0);
+        assertThat(base.rated()).isTrue();
+        assertThat(base.issueAge()).isEqualTo(ISSUE_AGE);
+        assertThat(base.years()).isEqualTo(MAX_AGE - ISSUE_AGE + 1);
+        assertThat(base.renewalPremium()).containsExactly(1400.0, 1410.0, 1420.0, 1430.0, 1440.0, 1450.0);
+        assertThat(base.levelPremium()).containsOnly(1400.0).hasSize(base.years());
+        // The unrated rider runs for every duration, so only it is left once the base coverage ends
+        double rider = illustration.coverages().get(1).renewalPremium()[0];
+        assertThat(illustration.totalRenewal()).hasSize(10);
+        assertThat(illustration.totalRenewal()[5]).isEqualTo(1450.0 + rider);
+        assertThat(illustration.totalRenewal()[6]).isEqualTo(rider);
+    }
+
+    @Test
+    void flatExtrasArePerThousandOfFaceAndTheTemporaryOneExpires() {
+        PremiumIllustration illustration = premiumIllustrator.illustrate(
+                application(details("250000", "1.25", "2.50", 3)), 5);
+
+        PremiumIllustration.CoverageIllustration base = illustration.coverages().get(0);
+        double rider = illustration.coverages().get(1).levelPremium()[0];
+        assertThat(base.flatExtra()).containsExactly(937.5, 937.5, 937.5, 312.5, 312.5);
+        assertThat(illustration.totalLevel()[0]).isEqualTo(base.levelPremium()[0] + 937.5 + rider);
+        assertThat(illustration.totalLevel()[3]).isEqualTo(base.levelPremium()[3] + 312.5 + rider);
+    }
+
+    @Test
+    void firstLevelYearEqualsTheQuotePremium() {
+        PremiumApplication application = application(details("123456.78", null, null, 0));
+
+        PremiumIllustration illustration = premiumIllustrator.illustrate(application, 3);
+        PremiumQuote quote = premiumCalculator.calculate(application);
+
+        for (int i = 0; i < quote.coverages().size(); i++) {
+            assertThat(illustration.coverages().get(i).levelPremium()[0])
+                    .isEqualTo(quote.coverages().get(i).annual().doubleValue());
+        }
+        PremiumIllustration.CoverageIllustration rider = illustration.coverages().get(1);
+        assertThat(rider.rated()).isFalse();
+        assertThat(rider.years()).isEqualTo(3);
+        assertThat(rider.renewalPremium()).containsOnly(rider.levelPremium()[0]);
+    }
+
+    @Test
+    void rejectsDurationsOutOfRange() {
+        PremiumApplication application = application(details("100000", null, null, 0));
+
+        assertThatThrownBy(() -> premiumIllustrator.illustrate(application, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> premiumIllustrator.illustrate(application, PremiumIllustrator.MAX_DURATIONS + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsFractionsOfACent() {
+        assertThatThrownBy(() -> premiumIllustrator.illustrate(application(details("100000.005", null, null, 0)), 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cov-1");
+        assertThatThrownBy(() -> premiumIllustrator.illustrate(application(details("100000", "1.001", null, 0)), 5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PremiumApplication.Details details(String face, String permFlat, String tempFlat, int tempFlatDuration) {
+        return new PremiumApplication.Details(new BigDecimal(face), "100", permFlat != null ? new BigDecimal(permFlat) : null,
+                tempFlat != null ? new BigDecimal(tempFlat) : null, tempFlatDuration, "01");
+    }
+
+    /**
+     * The given base coverage, on an insured whose issue age is {@link #ISSUE_AGE}, and an unrated rider
+     */
+    private static PremiumApplication application(PremiumApplication.Details base) {
+        String dateOfBirth = LocalDate.now().minusYears(ISSUE_AGE).minusDays(1).toString();
+        PremiumApplication.Role insured = new PremiumApplication.Role("r1", "01",
+                new PremiumApplication.Client("c1", "Jane Doe", "", "F", "N", "US", "CA", dateOfBirth, "01"));
+        return new PremiumApplication("app-1", "plan-1", List.of(insured), List.of(
+                new PremiumApplication.Coverage("cov-1", "base-1", base, List.of()),
+                new PremiumApplication.Coverage("cov-2", "rider-1",
+                        new PremiumApplication.Details(new BigDecimal("25000.50"), "100", null, null, 0, "01"), List.of())));
+    }
+}
@@ -0,0 +1,68 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and allocation per quote, request bytes to response bytes, of the typed model against the
+ * string-keyed calculator it replaced. Both price the same unrated three-coverage application.
+ * Run with {@code ./gradlew premiumBenchmark}, which adds the GC profiler for bytes allocated per quote
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PremiumQuoteBenchmark {
+
+    private static final String REQUEST = """
+            {"application": {"ApplicationFormGUID": "app-1", "PlanGUID": "plan-1",
+              "roles": [{"RoleGUID": "r1", "RoleCode": "01", "client": {"ClientGUID": "c1", "ClientName": "Jane Doe",
+                "Gender": "F", "Tobacco": "N", "CountryCode": "US", "StateCode": "CA", "DateOfBirth": "1980-01-31",
+                "TypeCode": "01"}}],
+              "coverages": [
+                {"CoverageGUID": "cov-1", "CoverageDefinitionGUID": "base-1", "coveragedetails": {"FaceAmount": "250000",
+                  "TableRating": "100", "PermFlat": "0", "TempFlat": "0", "TempFlatDuration": "0", "UWClass": "01"}},
+                {"CoverageGUID": "cov-2", "CoverageDefinitionGUID": "rider-1", "coveragedetails": {"FaceAmount": "50000",
+                  "TableRating": "100", "PermFlat": "0", "TempFlat": "0", "TempFlatDuration": "0", "UWClass": "01"}},
+                {"CoverageGUID": "cov-3", "CoverageDefinitionGUID": "rider-2", "coveragedetails": {"FaceAmount": "10000.50",
+                  "TableRating": "100", "PermFlat": "0", "TempFlat": "0", "TempFlatDuration": "0", "UWClass": "02"}}]}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final byte[] request = REQUEST.getBytes(StandardCharsets.UTF_8);
+    private PremiumCalculator premiumCalculator;
+
+    @Setup
+    public void setUp() {
+        premiumCalculator = new PremiumCalculator();
+        ReflectionTestUtils.setField(premiumCalculator, "rateTables", new RateTables());
+    }
+
+    @Benchmark
+    public byte[] typedModel() throws IOException {
+        PremiumApplication application = objectMapper.readValue(request, PremiumApplication.class);
+        return objectMapper.writeValueAsBytes(premiumCalculator.calculate(application));
+    }
+
+    @Benchmark
+    public byte[] stringKeyedMaps() throws IOException {
+        return objectMapper.writeValueAsBytes(LegacyPremiumCalculator.calculatePremium(objectMapper.readTree(request)));
+    }
+}
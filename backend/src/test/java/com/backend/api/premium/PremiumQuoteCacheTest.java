@@ -0,0 +1,112 @@
+package com.backend.api.premium;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PremiumQuoteCacheTest {
+
+    private static final LocalDate QUOTE_DATE = LocalDate.of(2024, 6, 1);
+
+    private final RateTables rateTables = mock(RateTables.class);
+    private final PremiumCalculator premiumCalculator = new PremiumCalculator();
+    private final PremiumQuoteCache premiumQuoteCache = new PremiumQuoteCache();
+
+    @BeforeEach
+    void setUp() {
+        RateTable base = new RateTable(0, 120);
+        for (int age = 0; age <= 120; age++) {
+            base.set(age, 1, 0, 0, 12_345 + 7 * age);
+        }
+        when(rateTables.find("plan-1", "base-1")).thenReturn(base);
+        when(rateTables.version()).thenReturn(1L);
+        ReflectionTestUtils.setField(premiumCalculator, "rateTables", rateTables);
+        ReflectionTestUtils.setField(premiumQuoteCache, "rateTables", rateTables);
+        ReflectionTestUtils.setField(premiumQuoteCache, "enabled", true);
+        ReflectionTestUtils.setField(premiumQuoteCache, "maxBytes", 1_048_576L);
+    }
+
+    @Test
+    void keyComparesFaceAmountsByValueAndKeepsInsuredFactsApart() {
+        String key = PremiumQuoteCache.key(application("app-1", "cov", new BigDecimal("100000"),
+                insured("F", "N", "1980-01-31")), QUOTE_DATE);
+
+        assertThat(PremiumQuoteCache.key(application("app-2", "other", new BigDecimal("100000.00"),
+                insured("F", "N", "1980-01-31")), QUOTE_DATE)).isEqualTo(key);
+        assertThat(PremiumQuoteCache.key(application("app-1", "cov", new BigDecimal("100000"),
+                insured("M", "N", "1980-01-31")), QUOTE_DATE)).isNotEqualTo(key);
+        assertThat(PremiumQuoteCache.key(application("app-1", "cov", new BigDecimal("100000"),
+                insured("F", "Y", "1980-01-31")), QUOTE_DATE)).isNotEqualTo(key);
+        assertThat(PremiumQuoteCache.key(application("app-1", "cov", new BigDecimal("100000"),
+                insured("F", "N", "1979-01-31")), QUOTE_DATE)).isNotEqualTo(key);
+    }
+
+    @Test
+    void hitIsRebuiltByCoveragePositionWithTheCallersGUIDs() {
+        PremiumApplication first = application("app-1", "cov", new BigDecimal("100000"), insured("F", "N", "1980-01-31"));
+        PremiumApplication second = application("app-2", "other", new BigDecimal("100000.00"), insured("F", "N", "1980-01-31"));
+        premiumQuoteCache.get(first, () -> premiumCalculator.calculate(first));
+
+        PremiumQuote quote = premiumQuoteCache.get(second, () -> {
+            throw new AssertionError("expected a cache hit");
+        });
+
+        assertThat(quote).isEqualTo(premiumCalculator.calculate(second));
+        assertThat(quote.applicationFormGUID()).isEqualTo("app-2");
+        assertThat(quote.coverages()).extracting(PremiumQuote.CoveragePremium::coverageGUID)
+                .containsExactly("other-1", "other-3");
+    }
+
+    @Test
+    void clearsWhenRatesReload() {
+        PremiumApplication application = application("app-1", "cov", new BigDecimal("100000"), insured("F", "N", "1980-01-31"));
+        AtomicInteger calculated = new AtomicInteger();
+
+        premiumQuoteCache.get(application, () -> {
+            calculated.incrementAndGet();
+            return premiumCalculator.calculate(application);
+        });
+        premiumQuoteCache.get(application, () -> {
+            calculated.incrementAndGet();
+            return premiumCalculator.calculate(application);
+        });
+        assertThat(calculated).hasValue(1);
+
+        when(rateTables.version()).thenReturn(2L);
+        premiumQuoteCache.get(application, () -> {
+            calculated.incrementAndGet();
+            return premiumCalculator.calculate(application);
+        });
+
+        assertThat(calculated).hasValue(2);
+        assertThat(premiumQuoteCache.stats()).containsEntry("invalidations", 1L).containsEntry("entries", 1);
+    }
+
+    private static PremiumApplication.Role insured(String gender, String tobacco, String dateOfBirth) {
+        return new PremiumApplication.Role("r1", "01",
+                new PremiumApplication.Client("c1", "Jane Doe", "", gender, tobacco, "US", "CA", dateOfBirth, "01"));
+    }
+
+    /**
+     * A rated base coverage, a rider without a face amount and an unrated rider
+     */
+    private static PremiumApplication application(String applicationFormGUID, String coveragePrefix, BigDecimal baseFace,
+                                                  PremiumApplication.Role insured) {
+        return new PremiumApplication(applicationFormGUID, "plan-1", List.of(insured), List.of(
+                new PremiumApplication.Coverage(coveragePrefix + "-1", "base-1",
+                        new PremiumApplication.Details(baseFace, "100", null, null, 0, "01"), List.of()),
+                new PremiumApplication.Coverage(coveragePrefix + "-2", "rider-1",
+                        new PremiumApplication.Details(null, "100", null, null, 0, "01"), List.of()),
+                new PremiumApplication.Coverage(coveragePrefix + "-3", "rider-2",
+                        new PremiumApplication.Details(new BigDecimal("25000.50"), "100", null, null, 0, "01"), List.of())));
+    }
+}
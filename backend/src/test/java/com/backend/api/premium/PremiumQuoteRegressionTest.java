@@ -0,0 +1,104 @@
+package com.backend.api.premium;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Applications the plan has no rates for must quote exactly as the string-keyed calculator did:
+ * same response keys, same values.
+ */
+@ExtendWith(MockitoExtension.class)
+class PremiumQuoteRegressionTest {
+
+    // Table ratings never changed the price, whatever their form
+    private static final String[] TABLE_RATINGS = {"", "100", "125", "150%", "275", "0", "-50", "table 2"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private RateTables rateTables;
+
+    @InjectMocks
+    private PremiumCalculator premiumCalculator;
+
+    @Test
+    void pinsKeysAndValuesOfTheLegacyResponse() throws IOException {
+        String request = """
+                {"application": {"ApplicationFormGUID": "app-1", "PlanGUID": "plan-1",
+                  "roles": [{"RoleGUID": "r1", "RoleCode": "01", "client": {"ClientGUID": "c1", "Gender": "M",
+                    "Tobacco": "N", "DateOfBirth": "1980-01-31"}}],
+                  "coverages": [
+                    {"CoverageGUID": "cov-1", "CoverageDefinitionGUID": "base-1",
+                     "coveragedetails": {"FaceAmount": "100000", "TableRating": "175", "UWClass": "01"}},
+                    {"CoverageGUID": "cov-2", "CoverageDefinitionGUID": "rider-1",
+                     "coveragedetails": {"FaceAmount": "25000.50", "UWClass": "02"}},
+                    {"CoverageGUID": "cov-3", "CoverageDefinitionGUID": "rider-2", "coveragedetails": {}}]}}
+                """;
+
+        JsonNode quote = quote(request);
+
+        assertThat(quote).isEqualTo(objectMapper.readTree("""
+                {"cov-1_premium": 1923.08, "cov-2_premium": 480.78,
+                 "app-1_totalAnnualPremium": 2403.86, "app-1_totalMonthlyPremium": 200.32,
+                 "app-1_totalQuarterlyPremium": 600.96, "app-1_totalSemiAnnualPremium": 1201.93}
+                """));
+        assertThat(quote).isEqualTo(LegacyPremiumCalculator.calculatePremium(objectMapper.readTree(request)));
+    }
+
+    @Test
+    void matchesTheLegacyCalculatorOnRandomRequests() throws IOException {
+        Random random = new Random(18);
+        for (int n = 0; n < 500; n++) {
+            String request = randomRequest(random);
+
+            assertThat(quote(request))
+                    .as(request)
+                    .isEqualTo(LegacyPremiumCalculator.calculatePremium(objectMapper.readTree(request)));
+        }
+    }
+
+    private JsonNode quote(String request) throws IOException {
+        PremiumQuote quote = premiumCalculator.calculate(objectMapper.readValue(request, PremiumApplication.class));
+        return objectMapper.valueToTree(quote);
+    }
+
+    private static String randomRequest(Random random) {
+        StringBuilder coverages = new StringBuilder();
+        int count = random.nextInt(5);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                coverages.append(',');
+            }
+            coverages.append("{\"CoverageGUID\": \"cov-").append(random.nextInt(4))
+                    .append("\", \"CoverageDefinitionGUID\": \"def-").append(i)
+                    .append("\", \"coveragedetails\": {\"UWClass\": \"0").append(1 + random.nextInt(4))
+                    .append("\", \"TableRating\": \"").append(TABLE_RATINGS[random.nextInt(TABLE_RATINGS.length)]).append('"');
+            if (random.nextInt(10) > 0) {
+                coverages.append(", \"FaceAmount\": \"").append(randomFaceAmount(random)).append('"');
+            }
+            coverages.append("}}");
+        }
+        return "{\"application\": {\"ApplicationFormGUID\": \"app-" + random.nextInt(1000)
+                + "\", \"PlanGUID\": \"plan-1\", \"coverages\": [" + coverages + "]}}";
+    }
+
+    private static String randomFaceAmount(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> Integer.toString(random.nextInt(10_000_000));
+            case 1 -> random.nextInt(10_000_000) + "." + String.format("%02d", random.nextInt(100));
+            // Fractions of a cent go through the BigDecimal path
+            case 2 -> random.nextInt(1_000_000) + "." + String.format("%04d", random.nextInt(10_000));
+            default -> Integer.toString(52 * random.nextInt(100_000) + 26);
+        };
+    }
+}
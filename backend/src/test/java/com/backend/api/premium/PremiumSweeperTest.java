@@ -0,0 +1,86 @@
+package com.backend.api.premium;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PremiumSweeperTest {
+
+    private static final PremiumApplication.Role INSURED = new PremiumApplication.Role("r1", "01",
+            new PremiumApplication.Client("c1", "Jane Doe", "", "F", "N", "US", "CA", "1980-01-31", "01"));
+
+    private final PremiumCalculator premiumCalculator = new PremiumCalculator();
+    private final PremiumSweeper premiumSweeper = new PremiumSweeper();
+
+    @BeforeEach
+    void setUp() {
+        RateTable base = new RateTable(0, 120);
+        for (int age = 0; age <= 120; age++) {
+            base.set(age, 1, 0, 0, 12_345 + 7 * age);
+            base.set(age, 1, 0, 1, 11_111 + 7 * age);
+        }
+        RateTables rateTables = mock(RateTables.class);
+        when(rateTables.find("plan-1", "base-1")).thenReturn(base);
+        ReflectionTestUtils.setField(premiumCalculator, "rateTables", rateTables);
+        ReflectionTestUtils.setField(premiumSweeper, "premiumCalculator", premiumCalculator);
+        ReflectionTestUtils.setField(premiumSweeper, "maxCells", 100_000);
+    }
+
+    @Test
+    void everyCellEqualsTheQuoteOfThatApplication() {
+        for (PaymentMode mode : PaymentMode.values()) {
+            PremiumSweep sweep = premiumSweeper.sweep(application("50000", "01"), "cov-1", new BigDecimal("10000"),
+                    new BigDecimal("250000"), new BigDecimal("9999.99"), List.of("01", "02"), mode);
+
+            assertThat(sweep.series()).extracting(PremiumSweep.Series::uwClass).containsExactly("01", "02");
+            for (PremiumSweep.Series series : sweep.series()) {
+                assertThat(series.rated()).isTrue();
+                for (int f = 0; f < sweep.faceAmounts().length; f++) {
+                    PremiumQuote quote = premiumCalculator.calculate(
+                            application(BigDecimal.valueOf(sweep.faceAmounts()[f]).toPlainString(), series.uwClass()));
+                    assertThat(series.totalPremium()[f]).isEqualTo(mode.total(quote).doubleValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    void solvesForTheLargestFaceAmountWithinTheTarget() {
+        PremiumApplication application = application("50000", "01");
+
+        PremiumSweep.Solution solution = premiumSweeper.solve(application, "cov-1", new BigDecimal("150"),
+                PaymentMode.MONTHLY, new BigDecimal("1000"), null);
+
+        BigDecimal face = BigDecimal.valueOf(solution.faceAmount());
+        assertThat(PaymentMode.MONTHLY.total(premiumCalculator.calculate(application(face.toPlainString(), "01"))))
+                .isLessThanOrEqualTo(new BigDecimal("150"));
+        assertThat(PaymentMode.MONTHLY.total(premiumCalculator.calculate(
+                application(face.add(new BigDecimal("1000")).toPlainString(), "01"))))
+                .isGreaterThan(new BigDecimal("150"));
+    }
+
+    @Test
+    void rejectsGridsLargerThanTheLimit() {
+        ReflectionTestUtils.setField(premiumSweeper, "maxCells", 10);
+
+        assertThatThrownBy(() -> premiumSweeper.sweep(application("50000", "01"), null, new BigDecimal("1000"),
+                new BigDecimal("6000"), new BigDecimal("1000"), List.of("01", "02"), PaymentMode.ANNUAL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PremiumApplication application(String baseFace, String uwClass) {
+        return new PremiumApplication("app-1", "plan-1", List.of(INSURED), List.of(
+                new PremiumApplication.Coverage("cov-1", "base-1",
+                        new PremiumApplication.Details(new BigDecimal(baseFace), "100", null, null, 0, uwClass), List.of()),
+                new PremiumApplication.Coverage("cov-2", "rider-1",
+                        new PremiumApplication.Details(new BigDecimal("25000.50"), "150", null, null, 0, "01"), List.of())));
+    }
+}
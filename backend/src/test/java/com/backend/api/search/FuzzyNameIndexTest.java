@@ -0,0 +1,78 @@
+package com.backend.api.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FuzzyNameIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsTyposAndPhoneticMisspellings() {
+        FuzzyNameIndex index = sample();
+
+        assertThat(index.search("Jon", "Smyth", 2, 10))
+                .extracting(FuzzyNameIndex.Match::clientGUID)
+                .startsWith("c1");
+        assertThat(index.search(null, "Fillips", 2, 10))
+                .extracting(FuzzyNameIndex.Match::clientGUID)
+                .contains("c3");
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        FuzzyNameIndex index = sample();
+        Path file = dir.resolve("names-1.seg");
+
+        index.write(file);
+        FuzzyNameIndex read = FuzzyNameIndex.read(file);
+
+        assertThat(read.size()).isEqualTo(index.size());
+        for (String[] query : List.of(new String[] {"Jon", "Smyth"}, new String[] {null, "Fillips"},
+                new String[] {"Mary", null}, new String[] {"Jane", "Doe"}, new String[] {null, "Smith"})) {
+            assertThat(read.search(query[0], query[1], 2, 10)).isEqualTo(index.search(query[0], query[1], 2, 10));
+        }
+        assertThat(Files.exists(dir.resolve("names-1.seg.tmp"))).isFalse();
+    }
+
+    @Test
+    void readIndexKeepsTrackingChanges() throws IOException {
+        Path file = dir.resolve("names-1.seg");
+        sample().write(file);
+        FuzzyNameIndex read = FuzzyNameIndex.read(file);
+
+        read.remove("c1");
+        read.put("c5", "Jon", "Smythe");
+
+        assertThat(read.search("John", "Smith", 2, 10))
+                .extracting(FuzzyNameIndex.Match::clientGUID)
+                .contains("c5")
+                .doesNotContain("c1");
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("other.seg");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> FuzzyNameIndex.read(file)).isInstanceOf(IOException.class);
+    }
+
+    private static FuzzyNameIndex sample() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.put("c1", "John", "Smith");
+        index.put("c2", "Jane", "Doe");
+        index.put("c3", "Mary", "Phillips");
+        index.put("c4", null, "Smith");
+        return index;
+    }
+}
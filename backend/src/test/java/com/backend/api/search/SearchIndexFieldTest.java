@@ -0,0 +1,39 @@
+package com.backend.api.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexFieldTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sizeCountsOnlyShadowedKeysTheBaseHolds() throws IOException {
+        SearchIndexField field = new SearchIndexField();
+        field.put("a1", "APP-1001");
+        field.put("a2", "APP-1002");
+        field.put("a3", "APP-1003");
+        SearchIndexField checkpointed = field.checkpoint(dir.resolve("applicationNumber-1.seg"));
+        assertThat(checkpointed.size()).isEqualTo(3);
+
+        checkpointed.put("a4", "APP-1004");
+        assertThat(checkpointed.size()).isEqualTo(4);
+
+        checkpointed.put("a1", "APP-2001");
+        assertThat(checkpointed.size()).isEqualTo(4);
+
+        checkpointed.remove("a2");
+        checkpointed.remove("a9");
+        assertThat(checkpointed.size()).isEqualTo(3);
+
+        checkpointed.remove("a4");
+        assertThat(checkpointed.size()).isEqualTo(2);
+        assertThat(checkpointed.checkpoint(dir.resolve("applicationNumber-2.seg")).size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,173 @@
+package com.backend.api.service;
+
+import com.backend.api.dto.ApplicationSearchRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and allocation per search page, result set to response bytes, of the typed
+ * {@link ApplicationSearchRowMapper} against map rows: the generic column maps of queryForList, and the
+ * HashMap per row that executeQuery built before the mapper. All three read the same 50-row page, one
+ * owner in four corporate, from a stub ResultSet; its reflective dispatch is a cost all three share.
+ * Run with {@code ./gradlew searchRowBenchmark}, which adds the GC profiler for bytes allocated per page
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplicationSearchRowBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final String[] COLUMNS = {"applicationNumber", "applicationFormGUID", "firstName", "lastName",
+            "companyName", "dateOfBirth", "primaryAddress", "lastModifiedDate", "status", "ownerType", "createdBy"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setFilterProvider(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    private final ColumnMapRowMapper columnMapRowMapper = new ColumnMapRowMapper();
+    private StubResultSet page;
+    private ResultSet rs;
+
+    @Setup
+    public void setUp() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            boolean corporate = i % 4 == 3;
+            Map<String, Object> row = new HashMap<>();
+            row.put("applicationNumber", "APP-" + (100000 + i));
+            row.put("applicationFormGUID", "6f1c2a9e-0000-4000-8000-" + String.format("%012d", i));
+            row.put("firstName", corporate ? null : "Jane");
+            row.put("lastName", corporate ? null : "Doe");
+            row.put("companyName", corporate ? "Acme Corp" : null);
+            row.put("dateOfBirth", corporate ? null : Date.valueOf("1980-01-31"));
+            row.put("primaryAddress", "1 Main St, Springfield");
+            row.put("lastModifiedDate", Timestamp.valueOf("2024-03-05 14:30:00"));
+            row.put("status", "0" + (1 + i % 5));
+            row.put("ownerType", corporate ? "02" : "01");
+            row.put("createdBy", "Agent Smith");
+            rows.add(row);
+        }
+        page = new StubResultSet(rows);
+        rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class, ResultSetMetaData.class}, page);
+    }
+
+    @Benchmark
+    public byte[] typedRows() throws SQLException, IOException {
+        page.reset();
+        List<ApplicationSearchRow> rows = new ArrayList<>();
+        for (int rowNum = 0; rs.next(); rowNum++) {
+            rows.add(ApplicationSearchRowMapper.INSTANCE.mapRow(rs, rowNum));
+        }
+        return objectMapper.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] columnMaps() throws SQLException, IOException {
+        page.reset();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int rowNum = 0; rs.next(); rowNum++) {
+            rows.add(columnMapRowMapper.mapRow(rs, rowNum));
+        }
+        return objectMapper.writeValueAsBytes(rows);
+    }
+
+    @Benchmark
+    public byte[] hashMaps() throws SQLException, IOException {
+        page.reset();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(hashMapRow(rs));
+        }
+        return objectMapper.writeValueAsBytes(rows);
+    }
+
+    /**
+     * The row lambda executeQuery used before ApplicationSearchRowMapper
+     */
+    private static Map<String, Object> hashMapRow(ResultSet rs) throws SQLException {
+        Map<String, Object> result = new HashMap<>();
+        result.put("applicationNumber", rs.getString("applicationNumber"));
+        String ownerType = rs.getString("ownerType");
+        if (ownerType == null) {
+            ownerType = "01";
+        }
+        if (ownerType.equals("01")) {
+            result.put("ownerName", rs.getString("firstName") + " " + rs.getString("lastName"));
+            result.put("dateOfBirth", rs.getDate("dateOfBirth") != null ? rs.getDate("dateOfBirth").toString() : null);
+        } else {
+            result.put("companyName", rs.getString("companyName"));
+        }
+        result.put("primaryAddress", rs.getString("primaryAddress"));
+        if (rs.getTimestamp("lastModifiedDate") != null) {
+            result.put("lastModifiedDate", new Date(rs.getTimestamp("lastModifiedDate").getTime()).toString());
+        } else {
+            result.put("lastModifiedDate", null);
+        }
+        result.put("status", ApplicationSearchRowMapper.mapStatusCode(rs.getString("status")));
+        result.put("ownerType", ownerType);
+        result.put("createdBy", rs.getString("createdBy"));
+        return result;
+    }
+
+    /**
+     * Serves a fixed page through the ResultSet getters the mappers use, and its own metadata
+     */
+    private static final class StubResultSet implements InvocationHandler {
+
+        private final List<Map<String, Object>> rows;
+        private int row;
+
+        StubResultSet(List<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        void reset() {
+            row = -1;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "next" -> ++row < rows.size();
+                case "getString", "getDate", "getTimestamp", "getObject" -> args[0] instanceof Integer index
+                        ? rows.get(row).get(COLUMNS[index - 1])
+                        : rows.get(row).get((String) args[0]);
+                case "getMetaData" -> proxy;
+                case "getColumnCount" -> COLUMNS.length;
+                case "getColumnLabel", "getColumnName" -> COLUMNS[(Integer) args[0] - 1];
+                case "getColumnClassName" -> rows.get(row).get(COLUMNS[(Integer) args[0] - 1]).getClass().getName();
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.backend.api.service;
+
+import com.backend.api.dto.ApplicationSearchRow;
+import com.backend.api.service.SearchQueryBuilder.Column;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApplicationSearchRowMapperTest {
+
+    private static final Timestamp MODIFIED = Timestamp.valueOf("2024-03-05 14:30:00");
+
+    @Test
+    void individualOwnerCarriesNameAndDateOfBirth() throws SQLException {
+        ResultSet rs = row("01");
+
+        ApplicationSearchRow row = ApplicationSearchRowMapper.INSTANCE.mapRow(rs, 0);
+
+        assertThat(row.applicationNumber()).isEqualTo("APP-1");
+        assertThat(row.applicationFormGUID()).isEqualTo("guid-1");
+        assertThat(row.ownerName()).isEqualTo("Jane Doe");
+        assertThat(row.dateOfBirth()).isEqualTo("1980-01-31");
+        assertThat(row.companyName()).isNull();
+        assertThat(row.primaryAddress()).isEqualTo("1 Main St, Springfield");
+        assertThat(row.lastModifiedDate()).isEqualTo("2024-03-05");
+        assertThat(row.lastModified()).isEqualTo(MODIFIED);
+        assertThat(row.status()).isEqualTo("Submitted");
+        assertThat(row.ownerType()).isEqualTo("01");
+        assertThat(row.createdBy()).isEqualTo("Agent Smith");
+    }
+
+    @Test
+    void corporateOwnerCarriesCompanyNameOnly() throws SQLException {
+        ResultSet rs = row("02");
+
+        ApplicationSearchRow row = ApplicationSearchRowMapper.INSTANCE.mapRow(rs, 0);
+
+        assertThat(row.ownerName()).isNull();
+        assertThat(row.dateOfBirth()).isNull();
+        assertThat(row.companyName()).isEqualTo("Acme Corp");
+        assertThat(row.ownerType()).isEqualTo("02");
+        verify(rs, never()).getString("firstName");
+        verify(rs, never()).getDate("dateOfBirth");
+    }
+
+    @Test
+    void missingOwnerTypeMapsAsIndividual() throws SQLException {
+        ResultSet rs = row(null);
+
+        ApplicationSearchRow row = ApplicationSearchRowMapper.INSTANCE.mapRow(rs, 0);
+
+        assertThat(row.ownerType()).isEqualTo("01");
+        assertThat(row.ownerName()).isEqualTo("Jane Doe");
+        assertThat(row.companyName()).isNull();
+    }
+
+    @Test
+    void nullColumnsMapToNullOrUnknown() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("applicationFormGUID")).thenReturn("guid-1");
+
+        ApplicationSearchRow row = ApplicationSearchRowMapper.INSTANCE.mapRow(rs, 0);
+
+        assertThat(row.dateOfBirth()).isNull();
+        assertThat(row.lastModifiedDate()).isNull();
+        assertThat(row.lastModified()).isNull();
+        assertThat(row.status()).isEqualTo("Unknown");
+        assertThat(row.toCursor().getApplicationFormGUID()).isEqualTo("guid-1");
+    }
+
+    @Test
+    void projectionLeavesUnselectedFieldsNullWithoutReadingThem() throws SQLException {
+        ResultSet rs = row("01");
+        ApplicationSearchRowMapper mapper = ApplicationSearchRowMapper.forColumns(
+                SearchQueryBuilder.from(false).select(EnumSet.of(Column.APPLICATION_NUMBER)).build().columns());
+
+        ApplicationSearchRow row = mapper.mapRow(rs, 0);
+
+        assertThat(row.applicationNumber()).isEqualTo("APP-1");
+        assertThat(row.applicationFormGUID()).isEqualTo("guid-1");
+        assertThat(row.lastModified()).isEqualTo(MODIFIED);
+        assertThat(row.ownerName()).isNull();
+        assertThat(row.dateOfBirth()).isNull();
+        assertThat(row.companyName()).isNull();
+        assertThat(row.primaryAddress()).isNull();
+        assertThat(row.status()).isNull();
+        assertThat(row.createdBy()).isNull();
+        for (String unselected : List.of("ownerType", "firstName", "lastName", "companyName", "primaryAddress",
+                "status", "createdBy")) {
+            verify(rs, never()).getString(unselected);
+        }
+        verify(rs, never()).getDate(anyString());
+    }
+
+    @Test
+    void projectionOfCompanyNameKeepsOwnerTypeBranch() throws SQLException {
+        ResultSet rs = row("02");
+        ApplicationSearchRowMapper mapper = ApplicationSearchRowMapper.forColumns(
+                SearchQueryBuilder.columnsFor(List.of("companyName")));
+
+        ApplicationSearchRow row = mapper.mapRow(rs, 0);
+
+        assertThat(row.companyName()).isEqualTo("Acme Corp");
+        assertThat(row.ownerType()).isEqualTo("02");
+        assertThat(row.applicationNumber()).isNull();
+    }
+
+    @Test
+    void driverNeutralColumnsMapLikeJdbcRows() throws SQLException {
+        ApplicationSearchRowMapper.Columns<RuntimeException> columns = new ApplicationSearchRowMapper.Columns<>() {
+            @Override
+            public String string(String alias) {
+                return switch (alias) {
+                    case "applicationNumber" -> "APP-1";
+                    case "applicationFormGUID" -> "guid-1";
+                    case "firstName" -> "Jane";
+                    case "lastName" -> "Doe";
+                    case "companyName" -> "Acme Corp";
+                    case "primaryAddress" -> "1 Main St, Springfield";
+                    case "status" -> "02";
+                    case "ownerType" -> "01";
+                    case "createdBy" -> "Agent Smith";
+                    default -> null;
+                };
+            }
+
+            @Override
+            public LocalDate date(String alias) {
+                return LocalDate.of(1980, 1, 31);
+            }
+
+            @Override
+            public Timestamp timestamp(String alias) {
+                return MODIFIED;
+            }
+        };
+
+        assertThat(ApplicationSearchRowMapper.INSTANCE.map(columns))
+                .isEqualTo(ApplicationSearchRowMapper.INSTANCE.mapRow(row("01"), 0));
+    }
+
+    @Test
+    void fullProjectionSharesTheDefaultMapper() {
+        assertThat(ApplicationSearchRowMapper.forColumns(EnumSet.allOf(Column.class)))
+                .isSameAs(ApplicationSearchRowMapper.INSTANCE);
+    }
+
+    private static ResultSet row(String ownerType) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("applicationNumber")).thenReturn("APP-1");
+        when(rs.getString("applicationFormGUID")).thenReturn("guid-1");
+        when(rs.getString("firstName")).thenReturn("Jane");
+        when(rs.getString("lastName")).thenReturn("Doe");
+        when(rs.getString("companyName")).thenReturn("Acme Corp");
+        when(rs.getDate("dateOfBirth")).thenReturn(Date.valueOf("1980-01-31"));
+        when(rs.getString("primaryAddress")).thenReturn("1 Main St, Springfield");
+        when(rs.getTimestamp("lastModifiedDate")).thenReturn(MODIFIED);
+        when(rs.getString("status")).thenReturn("02");
+        when(rs.getString("ownerType")).thenReturn(ownerType);
+        when(rs.getString("createdBy")).thenReturn("Agent Smith");
+        return rs;
+    }
+}
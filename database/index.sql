@@ -0,0 +1,10 @@
+-- Run after the fr* application tables exist.
+
+-- Keyset pagination for /api/search/application (ORDER BY LastModifiedDate DESC, ApplicationFormGUID DESC)
+CREATE INDEX IX_frapplicationform_LastModified ON frapplicationform (LastModifiedDate, ApplicationFormGUID);
+
+-- Agent-scoped searches and counts: frrole rows of the agent's ClientGUID (users.agentClientGUID)
+CREATE INDEX IX_frrole_Client ON frrole (ClientGUID, RoleCode, ApplicationFormGUID);
+
+-- Seek for searches filtered on plan, when the planner finds that filter the most selective
+CREATE INDEX IX_frapplicationform_Plan ON frapplicationform (PlanGUID, LastModifiedDate, ApplicationFormGUID);
@@ -2,4 +2,65 @@ CREATE TABLE CONNECTION_TEST
 (
     PK            INT         NOT NULL PRIMARY KEY,
     DESCRIPTION   VARCHAR(20) NOT NULL
-);
\ No newline at end of file
+);
+
+-- Rows written since the last search index checkpoint, replayed by instances on start and poll
+CREATE TABLE search_index_change
+(
+    ChangeSeq   BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    EntityType  CHAR(1)      NOT NULL, -- A = frapplicationform, C = frclient
+    EntityGUID  VARCHAR(36)  NOT NULL,
+    ChangedAt   TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    INDEX IX_search_index_change_ChangedAt (ChangedAt)
+);
+
+
+-- One row per application, projected from the fr* tables for application search
+CREATE TABLE application_summary
+(
+    ApplicationFormGUID    VARCHAR(36)   NOT NULL PRIMARY KEY,
+    ApplicationFormNumber  VARCHAR(50)   NOT NULL,
+    PlanGUID               VARCHAR(36),
+    LastModifiedDate       DATETIME,
+    StatusCode             VARCHAR(2),
+    OwnerClientGUID        VARCHAR(36)   NOT NULL,
+    OwnerTypeCode          VARCHAR(2),
+    OwnerFirstName         VARCHAR(100),
+    OwnerLastName          VARCHAR(100),
+    OwnerCompanyName       VARCHAR(200),
+    OwnerDateOfBirth       DATE,
+    PrimaryAddress         VARCHAR(500),
+    AgentClientGUID        VARCHAR(36),
+    AgentFirstName         VARCHAR(100),
+    AgentLastName          VARCHAR(100),
+    CreatedBy              VARCHAR(201),
+    BaseFaceAmount         DECIMAL(15, 2),
+    INDEX IX_application_summary_LastModified (LastModifiedDate, ApplicationFormGUID),
+    INDEX IX_application_summary_Agent (AgentClientGUID, LastModifiedDate, ApplicationFormGUID),
+    INDEX IX_application_summary_Number (ApplicationFormNumber),
+    INDEX IX_application_summary_Owner (OwnerClientGUID),
+    INDEX IX_application_summary_Plan (PlanGUID, LastModifiedDate, ApplicationFormGUID),
+    INDEX IX_application_summary_Facets (AgentClientGUID, PlanGUID, StatusCode, LastModifiedDate, CreatedBy)
+);
+
+
+-- Unfiltered ('*') and per-agent ('agent:<agent ClientGUID>') application totals for search, kept current by writers
+CREATE TABLE application_count
+(
+    ScopeKey  VARCHAR(210) NOT NULL PRIMARY KEY,
+    Total     BIGINT       NOT NULL
+);
+
+
+-- Annual premium per 1,000 of face amount, loaded into memory by the premium calculator
+CREATE TABLE premium_rate
+(
+    PlanGUID                VARCHAR(36)   NOT NULL,
+    CoverageDefinitionGUID  VARCHAR(36)   NOT NULL,
+    IssueAge                SMALLINT      NOT NULL,
+    Gender                  CHAR(1)       NOT NULL, -- M, F
+    Tobacco                 CHAR(1)       NOT NULL, -- N, Y
+    UWClass                 VARCHAR(2)    NOT NULL, -- 01 Standard to 04 Preferred Plus
+    Rate                    DECIMAL(9, 4) NOT NULL,
+    PRIMARY KEY (PlanGUID, CoverageDefinitionGUID, IssueAge, Gender, Tobacco, UWClass)
+);